@@ -0,0 +1,349 @@
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Branch-and-bound knapsack solver with a time or node budget. Input format is as in KnapsackOptimizer.
+ *
+ *              Items are sorted by value/weight ratio. The upper bound of a node is the LP relaxation (Dantzig bound):
+ *              fill the remaining size with the next items in ratio order and a fraction of the first item that
+ *              does not fit. With prefix sums of the sorted weights and values, that item is found by binary search,
+ *              so a bound costs O(log n). Search is depth first with an explicit stack of at most n+1 levels,
+ *              taking an item before leaving it out, and starts from the greedy solution.
+ *
+ *              Neither the knapsack size nor the number of items limits the memory, so the solver also works when
+ *              W*n is far too large for any DP. When the budget runs out, it returns the best solution so far and
+ *              an upper bound: the largest bound among the subtrees still open on the stack. The gap between the two
+ *              is proven, so a caller can stop at a guaranteed quality.
+ *
+ *              Items of weight 0 are always taken and items of value 0 are never taken, so they are set aside before
+ *              the search, which then only sees items of positive value and weight.
+ **/
+public class BranchAndBoundKnapsackOptimizer {
+    private static final int CLOCK_CHECK_INTERVAL = 1024; //nodes between two reads of the clock
+
+    private long knapsackSize;
+    private int totalItems;
+    private int numItems; //items with positive value and weight, the ones the search decides on
+    private int[] order; //items by decreasing value/weight ratio
+    private long[] sortedValue;
+    private long[] sortedWeight;
+    private long[] prefixValue; //prefixValue[i] is the total value of the first i items in ratio order
+    private long[] prefixWeight;
+    private boolean[] alwaysTaken; //alwaysTaken[i] is true if item i has weight 0 and positive value
+    private long alwaysTakenValue;
+
+    private long bestValue;
+    private boolean[] bestTaken; //bestTaken[i] is true if the i_th item in ratio order is in the best solution
+    private long upperBound;
+    private long nodes;
+    private boolean optimal;
+
+    /**
+     * Construct the optimizer using external txt file. File format can be found in KnapsackOptimizer
+     * @param fileInputName file name
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public BranchAndBoundKnapsackOptimizer(String fileInputName) throws FileNotFoundException {
+        this(new KnapsackOptimizer(fileInputName));
+    }
+
+    /**
+     * Construct the optimizer on the items of a KnapsackOptimizer
+     * @param items the knapsack size and items, every item must have count 1
+     */
+    public BranchAndBoundKnapsackOptimizer(KnapsackOptimizer items){
+        this(items.requireZeroOne().knapsackSize, items.value, items.weight);
+    }
+
+    /**
+     * Construct the optimizer from item arrays
+     * @param knapsackSize the knapsack size
+     * @param value value of each item, must not be negative
+     * @param weight weight of each item, must not be negative
+     */
+    public BranchAndBoundKnapsackOptimizer(long knapsackSize, int[] value, int[] weight){
+        if (value.length != weight.length){
+            throw new IllegalArgumentException("Error: value and weight arrays must have the same length.");
+        }
+        this.knapsackSize = knapsackSize;
+        this.totalItems = value.length;
+        alwaysTaken = new boolean[totalItems];
+        order = new int[totalItems];
+        numItems = 0;
+        for (int i = 0; i < totalItems; i++){
+            if (value[i] < 0 || weight[i] < 0){
+                throw new IllegalArgumentException("Error: item " + (i + 1) + " must not have negative value or weight.");
+            }
+            if (value[i] == 0){ //never improves a solution
+                continue;
+            }
+            if (weight[i] == 0){ //always fits
+                alwaysTaken[i] = true;
+                alwaysTakenValue += value[i];
+                continue;
+            }
+            order[numItems++] = i;
+        }
+        order = Arrays.copyOf(order, numItems);
+        sortByRatio(order, new int[numItems], 0, numItems, value, weight);
+        sortedValue = new long[numItems];
+        sortedWeight = new long[numItems];
+        prefixValue = new long[numItems+1];
+        prefixWeight = new long[numItems+1];
+        for (int i = 0; i < numItems; i++){
+            sortedValue[i] = value[order[i]];
+            sortedWeight[i] = weight[order[i]];
+            prefixValue[i+1] = prefixValue[i] + sortedValue[i];
+            prefixWeight[i+1] = prefixWeight[i] + sortedWeight[i];
+        }
+    }
+
+    /**
+     * Merge sort items[from, to) by decreasing value/weight ratio, comparing ratios by cross multiplication.
+     * The sort is stable, so items of equal ratio keep their input order
+     */
+    private static void sortByRatio(int[] items, int[] buffer, int from, int to, int[] value, int[] weight){
+        if (to - from < 2){
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortByRatio(items, buffer, from, mid, value, weight);
+        sortByRatio(items, buffer, mid, to, value, weight);
+        int a = from, b = mid, k = from;
+        while (a < mid || b < to){
+            if (b == to || (a < mid && (long) value[items[a]] * weight[items[b]] >= (long) value[items[b]] * weight[items[a]])){
+                buffer[k++] = items[a++];
+            }
+            else{
+                buffer[k++] = items[b++];
+            }
+        }
+        System.arraycopy(buffer, from, items, from, to - from);
+    }
+
+    /**
+     * Run branch and bound to the end
+     */
+    public void runOptimization(){
+        runOptimization(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Run branch and bound until the optimum is proven or a budget runs out
+     * @param nodeBudget the largest number of nodes to visit
+     * @param timeBudgetMillis the longest time to search, in milliseconds
+     * @return true if the best solution is proven optimal
+     */
+    public boolean runOptimization(long nodeBudget, long timeBudgetMillis){
+        long deadline = (timeBudgetMillis >= Long.MAX_VALUE / 1000000) ? Long.MAX_VALUE
+                : System.nanoTime() + timeBudgetMillis * 1000000;
+        boolean[] taken = new boolean[numItems];
+        runGreedy();
+
+        long[] remaining = new long[numItems+1]; //remaining[d] is the free size at depth d
+        long[] valueSoFar = new long[numItems+1];
+        int[] stage = new int[numItems+1]; //0: new node, 1: taking item d, 2: leaving item d out
+        nodes = 0;
+        optimal = true;
+        int depth = 0;
+        remaining[0] = knapsackSize;
+        while (depth >= 0){
+            if (stage[depth] == 0){
+                if (nodes >= nodeBudget || (nodes % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() > deadline)){
+                    optimal = false;
+                    break;
+                }
+                nodes++;
+                int critical = criticalItem(depth, remaining[depth]);
+                if (critical == numItems){ //every remaining item fits: the bound is exact
+                    long total = valueSoFar[depth] + prefixValue[numItems] - prefixValue[depth];
+                    if (total > bestValue){
+                        recordBest(stage, depth, numItems, taken);
+                    }
+                    depth--;
+                    continue;
+                }
+                if (bound(depth, remaining[depth], valueSoFar[depth], critical) <= bestValue){
+                    depth--;
+                    continue;
+                }
+                stage[depth] = 1;
+                if (sortedWeight[depth] <= remaining[depth]){
+                    remaining[depth+1] = remaining[depth] - sortedWeight[depth];
+                    valueSoFar[depth+1] = valueSoFar[depth] + sortedValue[depth];
+                    stage[depth+1] = 0;
+                    depth++;
+                    continue;
+                }
+            }
+            if (stage[depth] == 1){
+                stage[depth] = 2;
+                remaining[depth+1] = remaining[depth];
+                valueSoFar[depth+1] = valueSoFar[depth];
+                stage[depth+1] = 0;
+                depth++;
+                continue;
+            }
+            stage[depth] = 0;
+            depth--;
+        }
+        bestValue += alwaysTakenValue;
+
+        upperBound = bestValue;
+        if (!optimal){ //the subtrees still open on the stack bound what the search has not seen
+            for (int d = 0; d <= depth; d++){
+                if (stage[d] == 1){ //leaving item d out is not explored yet
+                    upperBound = Math.max(upperBound, alwaysTakenValue
+                            + bound(d + 1, remaining[d], valueSoFar[d], criticalItem(d + 1, remaining[d])));
+                }
+                else if (stage[d] == 0){
+                    upperBound = Math.max(upperBound, alwaysTakenValue
+                            + bound(d, remaining[d], valueSoFar[d], criticalItem(d, remaining[d])));
+                }
+            }
+        }
+        return optimal;
+    }
+
+    /**
+     * Take items in ratio order whenever they fit, the starting solution of the search
+     */
+    private void runGreedy(){
+        long free = knapsackSize;
+        bestValue = 0;
+        bestTaken = new boolean[numItems];
+        for (int i = 0; i < numItems; i++){
+            if (sortedWeight[i] <= free){
+                free -= sortedWeight[i];
+                bestValue += sortedValue[i];
+                bestTaken[i] = true;
+            }
+        }
+    }
+
+    /**
+     * Record the solution on the current path, with items depth..takeUntil-1 all taken
+     */
+    private void recordBest(int[] stage, int depth, int takeUntil, boolean[] taken){
+        long total = 0;
+        for (int i = 0; i < numItems; i++){
+            taken[i] = (i < depth) ? stage[i] == 1 : i < takeUntil;
+            if (taken[i]){
+                total += sortedValue[i];
+            }
+        }
+        bestValue = total;
+        System.arraycopy(taken, 0, bestTaken, 0, numItems);
+    }
+
+    /**
+     * Find the first item, in ratio order from item depth on, that does not fit when all items before it are taken
+     * @return the index of that item, numItems if every remaining item fits
+     */
+    private int criticalItem(int depth, long free){
+        long limit = prefixWeight[depth] + free;
+        int low = depth, high = numItems; //largest j with prefixWeight[j] <= limit
+        while (low < high){
+            int mid = (low + high + 1) >>> 1;
+            if (prefixWeight[mid] <= limit){
+                low = mid;
+            }
+            else{
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Dantzig bound: items depth..critical-1 taken whole, then a fraction of the critical item
+     */
+    private long bound(int depth, long free, long valueSoFar, int critical){
+        long whole = prefixValue[critical] - prefixValue[depth];
+        if (critical == numItems){
+            return valueSoFar + whole;
+        }
+        long left = free - (prefixWeight[critical] - prefixWeight[depth]);
+        return valueSoFar + whole + left * sortedValue[critical] / sortedWeight[critical];
+    }
+
+    public long getBestValue(){
+        return bestValue;
+    }
+
+    public long getUpperBound(){
+        return upperBound;
+    }
+
+    /**
+     * Get the proven gap between the best solution and the optimum
+     * @return upper bound minus best value, 0 if the best solution is optimal
+     */
+    public long getGap(){
+        return upperBound - bestValue;
+    }
+
+    public boolean isOptimal(){
+        return optimal;
+    }
+
+    public long getNodes(){
+        return nodes;
+    }
+
+    /**
+     * Get the items of the best solution
+     * @return the items (numbered from 1) in the best solution, in increasing order
+     */
+    public ArrayList<Integer> getBestItems(){
+        boolean[] inBest = alwaysTaken.clone();
+        for (int i = 0; i < numItems; i++){
+            inBest[order[i]] = bestTaken[i];
+        }
+        ArrayList<Integer> items = new ArrayList<>();
+        for (int i = 0; i < totalItems; i++){
+            if (inBest[i]){
+                items.add(i + 1);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Helper print method for the result of a run
+     */
+    public void printResult(){
+        System.out.printf("Best value %d, upper bound %d, gap %d (%.4f%%), %s after %d nodes%n", bestValue, upperBound,
+                getGap(), 100.0 * getGap() / Math.max(1, upperBound), optimal ? "optimal" : "budget ran out", nodes);
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        //correct answer of knapsack1.txt is 2493893
+        BranchAndBoundKnapsackOptimizer tester = new BranchAndBoundKnapsackOptimizer("data/knapsack1.txt");
+        tester.runOptimization();
+        tester.printResult();
+
+        //correct answer of knapsack_big.txt is 4243395
+        BranchAndBoundKnapsackOptimizer big = new BranchAndBoundKnapsackOptimizer("data/knapsack_big.txt");
+        big.runOptimization(Long.MAX_VALUE, 1000);
+        big.printResult();
+
+        //strongly correlated items (value = weight + 1000) are hard for branch and bound: stop after 1 second
+        int numItems = 10000;
+        Random random = new Random(1);
+        int[] value = new int[numItems];
+        int[] weight = new int[numItems];
+        long totalWeight = 0;
+        for (int i = 0; i < numItems; i++){
+            weight[i] = 1 + random.nextInt(1000000);
+            value[i] = weight[i] + 1000;
+            totalWeight += weight[i];
+        }
+        BranchAndBoundKnapsackOptimizer hard = new BranchAndBoundKnapsackOptimizer(totalWeight / 2, value, weight);
+        hard.runOptimization(Long.MAX_VALUE, 1000);
+        hard.printResult();
+    }
+}
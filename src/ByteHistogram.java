@@ -0,0 +1,138 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class counts how often each byte value occurs in a raw file, in parallel.
+ *              The file is split into chunks on a ForkJoinPool. Every chunk is memory-mapped and counted into its
+ *              own primitive histogram, so threads never write to shared counters, and the histograms are added
+ *              together as the tasks join. The counts are the weights HuffmanEncoder needs.
+ **/
+public class ByteHistogram {
+    public static final int NUM_SYMBOLS = 256;
+    private static final long CHUNK_SIZE = 8L << 20; //bytes counted by one task
+
+    /**
+     * Count byte frequencies of a file on the common ForkJoinPool
+     * @param fileInputName the file to count
+     * @return frequencies[b] is the number of times byte b occurs
+     * @throws FileNotFoundException throws error if file not found or cannot be read
+     */
+    public static long[] count(String fileInputName) throws FileNotFoundException {
+        return count(fileInputName, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Count byte frequencies of a file on a given ForkJoinPool
+     * @param fileInputName the file to count
+     * @param pool the pool to run on
+     * @return frequencies[b] is the number of times byte b occurs
+     * @throws FileNotFoundException throws error if file not found or cannot be read
+     */
+    public static long[] count(String fileInputName, ForkJoinPool pool) throws FileNotFoundException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileInputName), StandardOpenOption.READ)){
+            return pool.invoke(new CountTask(channel, 0, channel.size()));
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+    }
+
+    private static class CountTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+        private final FileChannel channel;
+        private final long from, to;
+
+        CountTask(FileChannel channel, long from, long to){
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute(){
+            if (to - from <= CHUNK_SIZE){
+                return countChunk();
+            }
+            long mid = from + (to - from) / 2;
+            CountTask left = new CountTask(channel, from, mid);
+            left.fork();
+            long[] counts = new CountTask(channel, mid, to).compute();
+            long[] leftCounts = left.join();
+            for (int b = 0; b < NUM_SYMBOLS; b++){
+                counts[b] += leftCounts[b];
+            }
+            return counts;
+        }
+
+        /**
+         * Count one chunk. Four interleaved int tables avoid consecutive increments of the same counter
+         * waiting on each other when a byte value repeats
+         */
+        private long[] countChunk(){
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            } catch (IOException e) {
+                throw new IllegalStateException("Error: cannot map bytes " + from + " to " + to + ".", e);
+            }
+            int[] counts = new int[4 * NUM_SYMBOLS];
+            int length = (int) (to - from);
+            int p = 0;
+            for (; p + 4 <= length; p += 4){
+                int word = buffer.getInt(p);
+                counts[word >>> 24]++;
+                counts[NUM_SYMBOLS + ((word >>> 16) & 0xFF)]++;
+                counts[2 * NUM_SYMBOLS + ((word >>> 8) & 0xFF)]++;
+                counts[3 * NUM_SYMBOLS + (word & 0xFF)]++;
+            }
+            for (; p < length; p++){
+                counts[buffer.get(p) & 0xFF]++;
+            }
+            long[] total = new long[NUM_SYMBOLS];
+            for (int b = 0; b < NUM_SYMBOLS; b++){
+                total[b] = (long) counts[b] + counts[NUM_SYMBOLS + b] + counts[2 * NUM_SYMBOLS + b]
+                        + counts[3 * NUM_SYMBOLS + b];
+            }
+            return total;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("histogram", ".bin");
+        try {
+            byte[] bytes = new byte[256 << 20];
+            new Random(1).nextBytes(bytes);
+            Files.write(file, bytes);
+            bytes = null;
+
+            int maxThreads = Runtime.getRuntime().availableProcessors();
+            double singleThread = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2){
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                count(file.toString(), pool); //warm-up
+                long start = System.nanoTime();
+                count(file.toString(), pool);
+                double millis = (System.nanoTime() - start) / 1e6;
+                pool.shutdown();
+                if (threads == 1){
+                    singleThread = millis;
+                }
+                System.out.printf("%2d threads: %8.1f ms, %7.1f MB/s, speedup %.2f%n", threads, millis,
+                        256 / (millis / 1e3), singleThread / millis);
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
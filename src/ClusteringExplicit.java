@@ -1,10 +1,4 @@
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Scanner;
 
 /**
  * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
@@ -38,9 +32,10 @@ import java.util.Scanner;
  * @date : 2021-01-31 17:39
  **/
 public class ClusteringExplicit {
-    private HashMap<Integer, ArrayList<Integer>> vertices; //Graph representation. List is the adjacency list
-    private ArrayList<GraphEdge> edges; //Edges in this graph
+    private EdgeStore edges; //Edges in this graph, each undirected edge stored once and sorted by length
     private UnionFind clusters;
+    private int numVertices;
+    private SingleLinkageDendrogram dendrogram; //built on first use, answers any k without re-running unions
 
     /**
      * Construct the graph using external txt file. File format can be found in class description
@@ -48,41 +43,11 @@ public class ClusteringExplicit {
      * @throws FileNotFoundException throws error if file not found
      */
     public ClusteringExplicit(String fileInputName) throws FileNotFoundException {
-        Scanner fileScanner;
-        vertices = new HashMap<>();
-        edges = new ArrayList<>();
-
-        try{
-            fileScanner = new Scanner(new File(fileInputName));
-        }
-        catch (IOException e) {
-            throw new FileNotFoundException("Error: Input file is not found.");
-        }
-        fileScanner.nextLine(); //skip first line, because the first line does not represent edge/vertex
-        while (fileScanner.hasNextLine()){ // add all vertices to graph
-            String[] info = fileScanner.nextLine().split(" ");
-            vertices.put(Integer.parseInt(info[0]), new ArrayList<>());
-            vertices.put(Integer.parseInt(info[1]), new ArrayList<>());
-        }
-
-        fileScanner = new Scanner(new File(fileInputName));
-        fileScanner.nextLine(); //skip first line, because the first line does not represent edge/vertex
-        while(fileScanner.hasNextLine()){
-            String[] info = fileScanner.nextLine().split(" ");
-            int edgeStart = Integer.parseInt(info[0]);
-            int edgeEnd = Integer.parseInt(info[1]);
-            int edgeLength = Integer.parseInt(info[2]);
-            GraphEdge edge = new GraphEdge(edgeStart, edgeEnd, edgeLength);
-            GraphEdge edgeDummy = new GraphEdge(edgeEnd, edgeStart, edgeLength);
-
-            this.edges.add(edge);
-            this.edges.add(edgeDummy);
-
-            vertices.get(edgeStart).add(edgeEnd);
-            vertices.get(edgeEnd).add(edgeStart);
-        }
-        clusters = new UnionFind(vertices.keySet().size());
-        Collections.sort(edges);
+        EdgeListLoader loader = new EdgeListLoader(fileInputName);
+        edges = loader.getEdgeStore();
+        numVertices = loader.getNumVertices();
+        clusters = new UnionFind(numVertices);
+        edges.sortByLength();
     }
 
     /**
@@ -94,8 +59,7 @@ public class ClusteringExplicit {
             if (clusters.getNumClusters() <= desiredNumClusters){
                 break;
             }
-            GraphEdge currEdge = edges.get(i);
-            clusters.union(currEdge.getStartID()-1, currEdge.getEndID()-1); //id in UnionFind and id for vertex is shifted by 1
+            clusters.union(edges.getStart(i)-1, edges.getEnd(i)-1); //id in UnionFind and id for vertex is shifted by 1
         }
         clusters.printUnionFind();
     }
@@ -108,26 +72,51 @@ public class ClusteringExplicit {
     public int getClusterMaxSpacing(){
         int maxSpacing = -1;
         for (int i = 0; i<edges.size(); i++){
-            GraphEdge currEdge = edges.get(i);
-            if (!clusters.connnected(currEdge.getStartID()-1, currEdge.getEndID()-1)){
-                maxSpacing = currEdge.getLength();
+            if (!clusters.connnected(edges.getStart(i)-1, edges.getEnd(i)-1)){
+                maxSpacing = edges.getLength(i);
                 return maxSpacing;
             }
         }
         return maxSpacing;
     }
 
+    /**
+     * Get the single-linkage dendrogram of this graph, building it on first use
+     * @return the dendrogram
+     */
+    public SingleLinkageDendrogram getDendrogram(){
+        if (dendrogram == null){
+            dendrogram = new SingleLinkageDendrogram(numVertices, edges);
+        }
+        return dendrogram;
+    }
+
+    /**
+     * Calculate the max spacing of a k-clustering from the dendrogram. Unlike clustering(k) followed by
+     * getClusterMaxSpacing(), this does not touch the shared UnionFind, so any k can be asked in O(1)
+     * @param k the number of clusters
+     * @return max spacing of the k-clustering, -1 if no edge connects two clusters
+     */
+    public int getClusterMaxSpacing(int k){
+        return getDendrogram().maxSpacing(k);
+    }
+
+    /**
+     * Label every vertex by its cluster in the k-clustering, in O(n) from the dendrogram
+     * @param k the number of clusters
+     * @return labels[v-1] is the cluster of vertex v, numbered from 0
+     */
+    public int[] getClusterLabels(int k){
+        return getDendrogram().clusterLabels(k);
+    }
+
     /**
      * Helper print method for debugging
      */
     public void printGraph(){
         System.out.println("********************   Printing edge list    ********************");
-        for (GraphEdge edge : edges){
-            System.out.println(edge);
-        }
-        System.out.println("********************   Printing adjacency list    ********************");
-        for (int key : vertices.keySet()){
-            System.out.println(key + ": " + vertices.get(key));
+        for (int i = 0; i<edges.size(); i++){
+            System.out.println(edges.getEdge(i));
         }
     }
 
@@ -145,5 +134,9 @@ public class ClusteringExplicit {
         //tester.printGraph();
         tester.clustering(4);
         System.out.println(tester.getClusterMaxSpacing());//correct answer is 106
+
+        for (int k = 2; k <= 10; k++){ //sweep k from the dendrogram
+            System.out.println("Max spacing of a " + k + "-clustering: " + tester.getClusterMaxSpacing(k));
+        }
     }
 }
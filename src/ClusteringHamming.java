@@ -0,0 +1,209 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Week 2 Programming Assignment.
+ *              In this question your task is again to run the clustering algorithm from lecture, but on a MUCH bigger graph.
+ *              So big, in fact, that the distances (i.e., edge costs) are only defined implicitly,
+ *              rather than being provided as an explicit list.
+ *
+ *              The data set is in data folder: clustering_big.txt
+ *              The format is:
+ *
+ *              [# of nodes] [# of bits for each node's label]
+ *              [first bit of node 1] ... [last bit of node 1]
+ *              [first bit of node 2] ... [last bit of node 2]
+ *              ...
+ *
+ *              For example, the third line of the file "0 1 1 0 0 1 1 0 0 1 0 1 1 1 1 1 1 0 1 0 1 1 0 1"
+ *              denotes the 24 bits associated with node #2.
+ *              The distance between two nodes u and v in this problem is defined as the Hamming distance---the number
+ *              of differing bits---between the two nodes' labels.
+ *
+ *              What is the largest value of k such that there is a k-clustering with spacing at least 3?
+ *              That is, how many clusters are needed to ensure that no pair of nodes with all but 2 bits in common
+ *              get split into different clusters?
+ *
+ *              Every label is packed into one int. Labels are indexed in a primitive open-addressing hash map
+ *              from label to node, and each label is merged in UnionFind with every existing label that can be
+ *              reached by flipping at most (spacing-1) bits. No edge is ever materialised, so for b bits and
+ *              spacing 3 the run time is O(n*b^2).
+ **/
+public class ClusteringHamming {
+    private int numNodes;
+    private int numBits;
+    private int[] codes; //codes[i] is the label of node i packed into an int, first bit is the most significant one
+
+    /**
+     * Construct the point set using external txt file. File format can be found in class description
+     * @param fileInputName file name to be imported
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public ClusteringHamming(String fileInputName) throws FileNotFoundException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileInputName), StandardOpenOption.READ)){
+            if (channel.size() > Integer.MAX_VALUE){
+                throw new IllegalArgumentException("Error: input file is larger than 2 GB.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            parse(buffer);
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+    }
+
+    /**
+     * Construct the point set from packed labels
+     * @param numBits the number of bits of each label, at most 31
+     * @param codes the label of each node, used directly and not copied
+     */
+    public ClusteringHamming(int numBits, int[] codes){
+        if (numBits < 1 || numBits > 31){
+            throw new IllegalArgumentException("Error: labels must have 1 to 31 bits.");
+        }
+        this.numNodes = codes.length;
+        this.numBits = numBits;
+        this.codes = codes;
+    }
+
+    /**
+     * Parse the header and then one label per line, packing the '0'/'1' characters of each line into an int
+     */
+    private void parse(MappedByteBuffer buffer){
+        int limit = buffer.limit();
+        int p = 0;
+        int[] header = new int[2];
+        for (int field = 0; field < 2; field++){
+            while (p < limit && (buffer.get(p) < '0' || buffer.get(p) > '9')){
+                p++;
+            }
+            while (p < limit && buffer.get(p) >= '0' && buffer.get(p) <= '9'){
+                header[field] = header[field] * 10 + (buffer.get(p++) - '0');
+            }
+        }
+        numNodes = header[0];
+        numBits = header[1];
+        if (numBits < 1 || numBits > 31){
+            throw new IllegalArgumentException("Error: labels must have 1 to 31 bits.");
+        }
+        while (p < limit && buffer.get(p) != '\n'){ //skip the rest of the header line
+            p++;
+        }
+        codes = new int[numNodes];
+        int node = 0;
+        int code = 0;
+        int bits = 0;
+        for (; p <= limit && node < numNodes; p++){
+            int b = (p < limit) ? buffer.get(p) : '\n';
+            if (b == '0' || b == '1'){
+                code = (code << 1) | (b - '0');
+                bits++;
+            }
+            else if (b == '\n' && bits > 0){
+                if (bits != numBits){
+                    throw new IllegalArgumentException("Error: node " + (node + 1) + " does not have " + numBits + " bits.");
+                }
+                codes[node++] = code;
+                code = 0;
+                bits = 0;
+            }
+        }
+        if (node != numNodes){
+            throw new IllegalArgumentException("Error: file has " + node + " nodes, header says " + numNodes + ".");
+        }
+    }
+
+    /**
+     * Find the largest k such that a k-clustering has spacing at least minSpacing, i.e. merge every pair of nodes
+     * whose Hamming distance is less than minSpacing and count the clusters
+     * @param minSpacing the spacing required between clusters
+     * @return the number of clusters
+     */
+    public int clustering(int minSpacing){
+        UnionFind clusters = new UnionFind(numNodes);
+        IntIntHashMap nodeOfCode = new IntIntHashMap(numNodes);
+        for (int i = 0; i < numNodes; i++){ //distance 0: nodes with the same label
+            int first = nodeOfCode.putIfAbsent(codes[i], i);
+            if (first != -1){
+                clusters.union(first, i);
+            }
+        }
+        int[] masks = flipMasks(minSpacing - 1);
+        for (int i = 0; i < numNodes; i++){
+            if (nodeOfCode.get(codes[i]) != i){ //each distinct label is expanded once
+                continue;
+            }
+            for (int mask : masks){
+                int neighbour = nodeOfCode.get(codes[i] ^ mask);
+                if (neighbour != -1){
+                    clusters.union(i, neighbour);
+                }
+            }
+        }
+        return clusters.getNumClusters();
+    }
+
+    /**
+     * Generate every bit mask over numBits bits that has between 1 and maxFlips bits set.
+     * Masks with the same number of set bits are enumerated in increasing order (Gosper's hack)
+     * @param maxFlips the largest number of bits to flip
+     * @return all masks
+     */
+    private int[] flipMasks(int maxFlips){
+        maxFlips = Math.min(maxFlips, numBits);
+        int count = 0;
+        long combinations = 1;
+        for (int k = 1; k <= maxFlips; k++){
+            combinations = combinations * (numBits - k + 1) / k;
+            count += combinations;
+        }
+        int[] masks = new int[count];
+        int index = 0;
+        for (int k = 1; k <= maxFlips; k++){
+            long mask = (1L << k) - 1;
+            while (mask < (1L << numBits)){
+                masks[index++] = (int) mask;
+                long lowest = mask & -mask;
+                long ripple = mask + lowest;
+                mask = ripple | (((mask ^ ripple) >>> 2) / lowest);
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Generate random labels, for timing on large point sets
+     * @param numNodes the number of nodes
+     * @param numBits the number of bits of each label
+     * @param seed seed of the random generator
+     * @return the generated point set
+     */
+    public static ClusteringHamming randomPoints(int numNodes, int numBits, long seed){
+        Random random = new Random(seed);
+        int[] codes = new int[numNodes];
+        for (int i = 0; i < numNodes; i++){
+            codes[i] = random.nextInt(1 << numBits);
+        }
+        return new ClusteringHamming(numBits, codes);
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        //expected output for spacing 3: 4
+        ClusteringHamming tester = new ClusteringHamming("data/clustering2-test.txt");
+
+        //correct answer for clustering_big.txt (200000 nodes, 24 bits) is 6118
+        //ClusteringHamming tester = new ClusteringHamming("data/clustering_big.txt");
+
+        System.out.println("Largest k with spacing at least 3 is: " + tester.clustering(3));
+
+        long start = System.nanoTime();
+        int k = randomPoints(200000, 24, 1).clustering(3);
+        System.out.println("Random 200000 x 24-bit points: k = " + k + " in " + (System.nanoTime() - start) / 1e6 + " ms");
+    }
+}
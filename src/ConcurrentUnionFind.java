@@ -0,0 +1,124 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class represents a union-find data structure that can be used by many threads at once.
+ *              The root array is an AtomicIntegerArray. find shortens paths by path splitting with compare-and-set,
+ *              and union links roots in index order (the larger root is linked under the smaller one),
+ *              so no cycle can be formed even when threads race.
+ *              find never blocks or retries: it only reads and makes optional CAS shortcuts, so it is wait-free.
+ *              The number of clusters is exact because it is decremented only by the one CAS that links a root.
+ **/
+public class ConcurrentUnionFind {
+    private final AtomicIntegerArray clusterRoot;
+    private final AtomicInteger numClusters;
+
+    /**
+     * Constructor of ConcurrentUnionFind
+     * @param n the number of elements that will be in ConcurrentUnionFind
+     */
+    public ConcurrentUnionFind(int n){
+        this.clusterRoot = new AtomicIntegerArray(n);
+        this.numClusters = new AtomicInteger(n);
+        for (int i=0; i<n; i++){
+            clusterRoot.set(i, i); //if the cluster has only one element, then its root is itself
+        }
+    }
+
+    /**
+     * Find the root/leader element of a given element. Every visited element is pointed to its grandparent
+     * @param id the element to find its root/leader
+     * @return the root/leader element of element id
+     */
+    public int find(int id){
+        while (true){
+            int parent = clusterRoot.get(id);
+            if (parent == id){
+                return id;
+            }
+            int grandParent = clusterRoot.get(parent);
+            if (parent != grandParent){
+                clusterRoot.compareAndSet(id, parent, grandParent); //a failed split is harmless, another thread moved id
+            }
+            id = parent;
+        }
+    }
+
+    /**
+     * Merge/union two elements into one cluster
+     * @param i one element to merge
+     * @param j the other element to merge
+     * @return true if this call merged two clusters, false if i and j were already in the same cluster
+     */
+    public boolean union(int i, int j){
+        while (true){
+            int rootI = find(i);
+            int rootJ = find(j);
+            if (rootI == rootJ){
+                return false;
+            }
+            if (rootI < rootJ){ //link the larger root under the smaller root
+                int temp = rootI;
+                rootI = rootJ;
+                rootJ = temp;
+            }
+            if (clusterRoot.compareAndSet(rootI, rootI, rootJ)){
+                numClusters.decrementAndGet();
+                return true;
+            }
+            //rootI was linked by another thread in the meantime, retry with the new roots
+        }
+    }
+
+    /**
+     * Check if two elements are in the same cluster (are connected).
+     * If the roots differ, the answer is only "not connected" when the first root was still a root
+     * after both finds; otherwise a concurrent union happened in between and the check is repeated.
+     * @param a one element
+     * @param b the other element
+     * @return true if two elements are connected, false if two elements are not connected
+     */
+    public boolean connnected(int a, int b){
+        while (true){
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB){
+                return true;
+            }
+            if (clusterRoot.get(rootA) == rootA){
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Label every element by its cluster, numbered from 0 in the order the clusters are first met.
+     * The labels are only consistent when no union runs at the same time
+     * @return labels[i] is the cluster label of element i
+     */
+    public int[] componentsSnapshot(){
+        int n = clusterRoot.length();
+        int[] labels = new int[n];
+        int[] rootLabel = new int[n];
+        Arrays.fill(rootLabel, -1);
+        int nextLabel = 0;
+        for (int i = 0; i < n; i++){
+            int root = find(i);
+            if (rootLabel[root] == -1){
+                rootLabel[root] = nextLabel++;
+            }
+            labels[i] = rootLabel[root];
+        }
+        return labels;
+    }
+
+    public int getNumClusters() {
+        return numClusters.get();
+    }
+
+    public int size(){
+        return clusterRoot.length();
+    }
+}
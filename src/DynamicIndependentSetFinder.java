@@ -0,0 +1,231 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Maximum-weight independent set of a path graph whose weights change. Input format is as in IndependentSetFinder.
+ *
+ *              Vertex i is the 2x2 matrix [[0, w_i], [0, -inf]] in the (max, +) semiring, which maps (A[i-1], A[i-2])
+ *              to (A[i], A[i-1]) for the DP A[i] = max(A[i-1], A[i-2] + w_i). A segment tree stores in every node the
+ *              product of the matrices of its range, so:
+ *              - a weight update recomputes the products on one leaf-to-root path, O(log n);
+ *              - the best independent set of the whole path is read from the root, O(1);
+ *              - the best independent set of a subpath [from, to] is the product of O(log n) nodes applied to (0, 0).
+ *
+ *              Vertex v is in some optimal set iff best(1..v-2) + w_v + best(v+2..n) equals the best value,
+ *              and in every optimal set iff best(1..v-1) + best(v+1..n) is smaller than it. Both take O(log n)
+ *              and no set is reconstructed.
+ **/
+public class DynamicIndependentSetFinder {
+    private static final long NEG_INF = Long.MIN_VALUE / 4; //-inf of the (max, +) semiring, safe to add a weight to
+
+    private int numVertices;
+    private int numLeaves; //power of two, leaf of vertex v is node numLeaves + v - 1
+    private long[] weights; //weights[v] is the weight of vertex v, weights[0] is unused
+    private long[] tree; //node k holds the row-major matrix tree[4k .. 4k+3], root is node 1
+
+    /**
+     * Construct the path graph using external txt file. File format can be found in IndependentSetFinder
+     * @param fileInputName file name to be imported
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public DynamicIndependentSetFinder(String fileInputName) throws FileNotFoundException {
+        Scanner fileScanner;
+        try {
+            fileScanner = new Scanner(new File(fileInputName));
+        } catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+        int n = Integer.parseInt(fileScanner.nextLine().trim());
+        long[] vertexWeights = new long[n];
+        int index = 0;
+        while (fileScanner.hasNextLine() && index < n) {
+            String line = fileScanner.nextLine().trim();
+            if (!line.isEmpty()){
+                vertexWeights[index++] = Long.parseLong(line);
+            }
+        }
+        build(vertexWeights);
+    }
+
+    /**
+     * Construct the path graph from vertex weights
+     * @param vertexWeights vertexWeights[i] is the weight of vertex i+1
+     */
+    public DynamicIndependentSetFinder(long[] vertexWeights){
+        build(vertexWeights);
+    }
+
+    /**
+     * Build every node bottom-up in O(n). Padding leaves hold the identity matrix
+     */
+    private void build(long[] vertexWeights){
+        numVertices = vertexWeights.length;
+        numLeaves = Integer.highestOneBit(Math.max(1, numVertices - 1)) << 1;
+        weights = new long[numVertices+1];
+        tree = new long[8 * numLeaves];
+        for (int v = 1; v <= numLeaves; v++){
+            if (v <= numVertices){
+                weights[v] = vertexWeights[v-1];
+                setVertex(numLeaves + v - 1, weights[v]);
+            }
+            else{
+                setIdentity(tree, 4 * (numLeaves + v - 1));
+            }
+        }
+        for (int k = numLeaves - 1; k >= 1; k--){
+            multiply(tree, 4*k, tree, 4*(2*k+1), tree, 4*(2*k)); //right range is applied after left range
+        }
+    }
+
+    /**
+     * Change the weight of a vertex
+     * @param vertex the vertex, from 1 to numVertices
+     * @param weight its new weight
+     */
+    public void updateWeight(int vertex, long weight){
+        checkVertex(vertex);
+        weights[vertex] = weight;
+        int k = numLeaves + vertex - 1;
+        setVertex(k, weight);
+        for (k >>= 1; k >= 1; k >>= 1){
+            multiply(tree, 4*k, tree, 4*(2*k+1), tree, 4*(2*k));
+        }
+    }
+
+    /**
+     * Get the max weight of an independent set of the whole path
+     * @return the max weight
+     */
+    public long queryMaxWeight(){
+        return Math.max(Math.max(tree[4], tree[5]), 0);
+    }
+
+    /**
+     * Get the max weight of an independent set of the subpath from vertex from to vertex to
+     * @param from first vertex of the subpath
+     * @param to last vertex of the subpath
+     * @return the max weight, 0 if the subpath is empty
+     */
+    public long queryMaxWeight(int from, int to){
+        from = Math.max(from, 1);
+        to = Math.min(to, numVertices);
+        if (from > to){
+            return 0;
+        }
+        long[] product = new long[12]; //left part at 0, right part at 4, scratch at 8
+        setIdentity(product, 0);
+        setIdentity(product, 4);
+        int lo = numLeaves + from - 1, hi = numLeaves + to; //half-open node range on the current level
+        while (lo < hi){
+            if ((lo & 1) == 1){ //left part grows to the right: left = node * left
+                multiply(product, 8, tree, 4*lo, product, 0);
+                System.arraycopy(product, 8, product, 0, 4);
+                lo++;
+            }
+            if ((hi & 1) == 1){ //right part grows to the left: right = right * node
+                hi--;
+                multiply(product, 8, product, 4, tree, 4*hi);
+                System.arraycopy(product, 8, product, 4, 4);
+            }
+            lo >>= 1;
+            hi >>= 1;
+        }
+        multiply(product, 8, product, 4, product, 0);
+        return Math.max(Math.max(product[8], product[9]), 0); //applied to (A[from-1], A[from-2]) = (0, 0)
+    }
+
+    /**
+     * Check whether a vertex belongs to at least one max weighted independent set
+     * @param vertex the vertex, from 1 to numVertices
+     * @return true if some optimal set contains the vertex
+     */
+    public boolean inSomeOptimalSet(int vertex){
+        checkVertex(vertex);
+        long best = queryMaxWeight(1, vertex - 2) + weights[vertex] + queryMaxWeight(vertex + 2, numVertices);
+        return best == queryMaxWeight();
+    }
+
+    /**
+     * Check whether a vertex belongs to every max weighted independent set
+     * @param vertex the vertex, from 1 to numVertices
+     * @return true if no optimal set leaves the vertex out
+     */
+    public boolean inEveryOptimalSet(int vertex){
+        checkVertex(vertex);
+        long bestWithout = queryMaxWeight(1, vertex - 1) + queryMaxWeight(vertex + 1, numVertices);
+        return bestWithout < queryMaxWeight();
+    }
+
+    public long getWeight(int vertex){
+        checkVertex(vertex);
+        return weights[vertex];
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    private void setVertex(int node, long weight){
+        tree[4*node] = 0;
+        tree[4*node+1] = weight;
+        tree[4*node+2] = 0;
+        tree[4*node+3] = NEG_INF;
+    }
+
+    private static void setIdentity(long[] matrices, int offset){
+        matrices[offset] = 0;
+        matrices[offset+1] = NEG_INF;
+        matrices[offset+2] = NEG_INF;
+        matrices[offset+3] = 0;
+    }
+
+    /**
+     * (max, +) product result = a * b of two row-major 2x2 matrices, clamping -inf so sums never overflow.
+     * result must not overlap a or b
+     */
+    private static void multiply(long[] result, int r, long[] a, int x, long[] b, int y){
+        result[r] = Math.max(NEG_INF, Math.max(a[x] + b[y], a[x+1] + b[y+2]));
+        result[r+1] = Math.max(NEG_INF, Math.max(a[x] + b[y+1], a[x+1] + b[y+3]));
+        result[r+2] = Math.max(NEG_INF, Math.max(a[x+2] + b[y], a[x+3] + b[y+2]));
+        result[r+3] = Math.max(NEG_INF, Math.max(a[x+2] + b[y+1], a[x+3] + b[y+3]));
+    }
+
+    private void checkVertex(int vertex){
+        if (vertex < 1 || vertex > numVertices){
+            throw new IllegalArgumentException("Error: vertex " + vertex + " is not in 1.." + numVertices + ".");
+        }
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        DynamicIndependentSetFinder tester = new DynamicIndependentSetFinder("data/mwis.txt");
+        int[] vertices = {1, 2, 3, 4, 17, 117, 517, 997};
+        String result = "";
+        for (int vertex : vertices) {
+            result += tester.inSomeOptimalSet(vertex) ? "1" : "0";
+        }
+        System.out.println("Final result is: " + result);
+        //correct answer is 10100110
+
+        int numVertices = 1000000;
+        int numUpdates = 1000000;
+        Random random = new Random(1);
+        long[] weights = new long[numVertices];
+        for (int i = 0; i < numVertices; i++){
+            weights[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        DynamicIndependentSetFinder dynamic = new DynamicIndependentSetFinder(weights);
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int u = 0; u < numUpdates; u++){
+            dynamic.updateWeight(1 + random.nextInt(numVertices), random.nextInt(Integer.MAX_VALUE));
+            checksum += dynamic.queryMaxWeight();
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.println(numUpdates + " updates with queries on " + numVertices + " vertices in " + millis + " ms ("
+                + (millis * 1e6 / numUpdates) + " ns each, checksum " + checksum + ")");
+    }
+}
@@ -0,0 +1,183 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class loads an edge list file shared by the graph problems. The file has the format:
+ *
+ *              [number_of_nodes] [number_of_edges (optional)]
+ *              [one_node_of_edge_1] [other_node_of_edge_1] [edge_1_cost]
+ *              [one_node_of_edge_2] [other_node_of_edge_2] [edge_2_cost]
+ *              ...
+ *
+ *              The file is memory-mapped and the digits are parsed straight from the mapped bytes into
+ *              primitive int arrays in a single pass. No object is created per line, so load time is
+ *              bounded by file bandwidth rather than garbage collection.
+ **/
+public class EdgeListLoader {
+    private static final long MAPPING_WINDOW = 1L << 30; //largest part of the file mapped at once
+    private static final int MIN_CAPACITY = 16;
+
+    private int numVertices;
+    private int numEdges;
+    private int[] edgeStart; //i_th edge connects edgeStart[i] and edgeEnd[i] with cost edgeLength[i]
+    private int[] edgeEnd;
+    private int[] edgeLength;
+
+    /**
+     * Load the edge list file
+     * @param fileInputName file name to be imported
+     * @throws FileNotFoundException throws error if file not found or cannot be read
+     */
+    public EdgeListLoader(String fileInputName) throws FileNotFoundException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileInputName), StandardOpenOption.READ)){
+            parse(channel);
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+    }
+
+    /**
+     * Parse the whole file. The parser is a small state machine (current number, sign, field and line)
+     * whose state carries over from one mapped window to the next.
+     */
+    private void parse(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        int[] header = new int[2];
+        int headerFields = 0;
+        boolean inHeader = true;
+        int field = 0; //index of the number being parsed within the current line
+        int value = 0;
+        boolean negative = false;
+        boolean inNumber = false;
+        allocate((int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_CAPACITY, fileSize / 16)));
+
+        for (long windowStart = 0; windowStart <= fileSize; windowStart += MAPPING_WINDOW){
+            long windowSize = Math.min(MAPPING_WINDOW, fileSize - windowStart);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+            boolean lastWindow = windowStart + windowSize == fileSize;
+            int limit = (int) windowSize;
+            for (int p = 0; p <= limit; p++){
+                int b;
+                if (p < limit){
+                    b = buffer.get(p);
+                }
+                else if (lastWindow){
+                    b = '\n'; //treat end of file as the end of the last line
+                }
+                else{
+                    break;
+                }
+                if (b >= '0' && b <= '9'){
+                    value = value * 10 + (b - '0');
+                    inNumber = true;
+                    continue;
+                }
+                if (b == '-'){
+                    negative = true;
+                    continue;
+                }
+                if (inNumber){ //any other byte ends the current number
+                    int number = negative ? -value : value;
+                    if (inHeader){
+                        if (headerFields < header.length){
+                            header[headerFields++] = number;
+                        }
+                    }
+                    else{
+                        if (field == 0){
+                            if (numEdges == edgeStart.length){
+                                allocate(Math.max(MIN_CAPACITY, 2 * numEdges));
+                            }
+                            edgeStart[numEdges] = number;
+                        }
+                        else if (field == 1){
+                            edgeEnd[numEdges] = number;
+                        }
+                        else if (field == 2){
+                            edgeLength[numEdges] = number;
+                        }
+                        field++;
+                    }
+                    value = 0;
+                    negative = false;
+                    inNumber = false;
+                }
+                if (b == '\n'){
+                    if (inHeader && headerFields > 0){
+                        inHeader = false;
+                        numVertices = header[0];
+                        if (headerFields > 1 && header[1] > edgeStart.length){ //number of edges is known in advance
+                            allocate(header[1]);
+                        }
+                    }
+                    else if (field >= 3){
+                        numEdges++;
+                    }
+                    else if (field != 0){
+                        throw new IllegalArgumentException("Error: edge " + (numEdges + 1) + " does not have 3 numbers.");
+                    }
+                    field = 0;
+                }
+            }
+            if (lastWindow){
+                break;
+            }
+        }
+        allocate(numEdges); //trim to the number of edges read
+    }
+
+    /**
+     * Resize the edge arrays to a new capacity, keeping the edges read so far
+     */
+    private void allocate(int capacity){
+        if (edgeStart != null && edgeStart.length == capacity){
+            return;
+        }
+        edgeStart = (edgeStart == null) ? new int[capacity] : Arrays.copyOf(edgeStart, capacity);
+        edgeEnd = (edgeEnd == null) ? new int[capacity] : Arrays.copyOf(edgeEnd, capacity);
+        edgeLength = (edgeLength == null) ? new int[capacity] : Arrays.copyOf(edgeLength, capacity);
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    public int[] getEdgeStart() {
+        return edgeStart;
+    }
+
+    public int[] getEdgeEnd() {
+        return edgeEnd;
+    }
+
+    public int[] getEdgeLength() {
+        return edgeLength;
+    }
+
+    /**
+     * Wrap the loaded edge arrays in an EdgeStore without copying them
+     * @return the loaded edges
+     */
+    public EdgeStore getEdgeStore() {
+        return new EdgeStore(edgeStart, edgeEnd, edgeLength);
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        long start = System.nanoTime();
+        EdgeListLoader loader = new EdgeListLoader("data/clustering1.txt");
+        System.out.println("Loaded " + loader.getNumEdges() + " edges over " + loader.getNumVertices()
+                + " vertices in " + (System.nanoTime() - start) / 1e6 + " ms");
+        //expected: 124750 edges over 500 vertices
+    }
+}
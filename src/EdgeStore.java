@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class stores the edges of an undirected graph once each, as three primitive
+ *              int arrays (struct of arrays): 12 bytes per edge, instead of a GraphEdge object per direction.
+ *              Edges are sorted by length with an LSD radix sort on the integer lengths, which is stable,
+ *              so edges of equal length keep their original relative order.
+ **/
+public class EdgeStore {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private int numEdges;
+    private int[] edgeStart; //i_th edge connects edgeStart[i] and edgeEnd[i] with cost edgeLength[i]
+    private int[] edgeEnd;
+    private int[] edgeLength;
+
+    /**
+     * Construct the store on top of edge arrays. The arrays are used directly, not copied
+     * @param edgeStart one end of each edge
+     * @param edgeEnd the other end of each edge
+     * @param edgeLength the cost of each edge
+     */
+    public EdgeStore(int[] edgeStart, int[] edgeEnd, int[] edgeLength){
+        if (edgeStart.length != edgeEnd.length || edgeStart.length != edgeLength.length){
+            throw new IllegalArgumentException("Error: edge arrays must have the same length.");
+        }
+        this.numEdges = edgeStart.length;
+        this.edgeStart = edgeStart;
+        this.edgeEnd = edgeEnd;
+        this.edgeLength = edgeLength;
+    }
+
+    public int size(){
+        return numEdges;
+    }
+
+    public int getStart(int i){
+        return edgeStart[i];
+    }
+
+    public int getEnd(int i){
+        return edgeEnd[i];
+    }
+
+    public int getLength(int i){
+        return edgeLength[i];
+    }
+
+    /**
+     * Get the i_th edge as a GraphEdge object, for results and printing
+     * @param i index of the edge
+     * @return a new GraphEdge of the i_th edge
+     */
+    public GraphEdge getEdge(int i){
+        return new GraphEdge(edgeStart[i], edgeEnd[i], edgeLength[i]);
+    }
+
+    /**
+     * Compute the order of edges by length without moving them, using an LSD radix sort with 8-bit digits.
+     * Lengths are signed, so the sign bit is flipped to make the unsigned digit order match the signed order.
+     * A pass is skipped when every edge has the same digit in it.
+     * Run time is O(m).
+     * @return edge indices sorted by length. Equal lengths are ordered by index
+     */
+    public int[] sortedOrder(){
+        int[] order = new int[numEdges];
+        int[] buffer = new int[numEdges];
+        for (int i = 0; i < numEdges; i++){
+            order[i] = i;
+        }
+        int[] count = new int[RADIX + 1];
+        for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS){
+            Arrays.fill(count, 0);
+            for (int i = 0; i < numEdges; i++){
+                count[digit(edgeLength[i], shift) + 1]++;
+            }
+            if (numEdges == 0 || count[digit(edgeLength[0], shift) + 1] == numEdges){ //pass would not change anything
+                continue;
+            }
+            for (int d = 0; d < RADIX; d++){ //prefix sums turn counts into bucket starts
+                count[d + 1] += count[d];
+            }
+            for (int i = 0; i < numEdges; i++){
+                int e = order[i];
+                buffer[count[digit(edgeLength[e], shift)]++] = e;
+            }
+            int[] temp = order;
+            order = buffer;
+            buffer = temp;
+        }
+        return order;
+    }
+
+    /**
+     * Sort the edges in place by length (stable LSD radix sort)
+     */
+    public void sortByLength(){
+        int[] order = sortedOrder();
+        edgeStart = permute(edgeStart, order);
+        edgeEnd = permute(edgeEnd, order);
+        edgeLength = permute(edgeLength, order);
+    }
+
+    private static int digit(int length, int shift){
+        return ((length ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1);
+    }
+
+    private static int[] permute(int[] values, int[] order){
+        int[] result = new int[values.length];
+        for (int i = 0; i < order.length; i++){
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+}
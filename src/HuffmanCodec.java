@@ -0,0 +1,375 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class compresses and decompresses byte streams with a canonical Huffman code.
+ *
+ *              Code lengths come from HuffmanEncoder over the byte frequencies, limited to DEFAULT_CODE_LENGTH_LIMIT
+ *              bits by default so the decode tables stay small enough for the L1 cache. Canonical codes are assigned from
+ *              the lengths alone (shorter codes first, equal lengths by byte value), so a compressed file only needs
+ *              to store the 256 code lengths. Bits are written most significant first through a 64-bit accumulator
+ *              into buffered NIO channels.
+ *
+ *              Decoding never walks a tree. The next PRIMARY_BITS bits index a primary table that gives the byte
+ *              and its code length directly. Longer codes share a primary entry with their prefix, which points to
+ *              a secondary table indexed by the remaining bits.
+ *
+ *              Compressed file format:
+ *              [original length: 8 bytes][code length of byte 0..255: 1 byte each][bit stream, zero padded]
+ **/
+public class HuffmanCodec {
+    public static final int NUM_SYMBOLS = 256;
+    public static final int MAX_CODE_LENGTH = 32; //longest code the 64-bit accumulators can handle
+    public static final int DEFAULT_CODE_LENGTH_LIMIT = 15; //keeps the secondary tables at most 16 entries each
+    private static final int PRIMARY_BITS = 11;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int HEADER_SIZE = 8 + NUM_SYMBOLS;
+
+    private final int[] codeLengths = new int[NUM_SYMBOLS];
+    private final int[] codes = new int[NUM_SYMBOLS]; //canonical code of each byte, right-aligned
+    private int[] primaryTable; //entry: (byte << 8 | code length), or SUBTABLE_FLAG | (offset << 5) | extra bits
+    private int[] secondaryTable;
+    private static final int SUBTABLE_FLAG = 0x80000000;
+
+    /**
+     * Construct the codec from code lengths
+     * @param codeLengths the code length of each byte value, 0 if the byte never occurs
+     */
+    public HuffmanCodec(int[] codeLengths){
+        if (codeLengths.length != NUM_SYMBOLS){
+            throw new IllegalArgumentException("Error: there must be " + NUM_SYMBOLS + " code lengths.");
+        }
+        for (int symbol = 0; symbol < NUM_SYMBOLS; symbol++){
+            if (codeLengths[symbol] < 0 || codeLengths[symbol] > MAX_CODE_LENGTH){
+                throw new IllegalArgumentException("Error: code length of byte " + symbol + " is not between 0 and "
+                        + MAX_CODE_LENGTH + ".");
+            }
+            this.codeLengths[symbol] = codeLengths[symbol];
+        }
+        assignCanonicalCodes();
+        buildDecodeTables();
+    }
+
+    /**
+     * Build a codec from byte frequencies with codes of at most DEFAULT_CODE_LENGTH_LIMIT bits
+     * @param frequencies frequencies[b] is the number of times byte b occurs
+     * @return the codec
+     */
+    public static HuffmanCodec fromFrequencies(long[] frequencies){
+        return fromFrequencies(frequencies, DEFAULT_CODE_LENGTH_LIMIT);
+    }
+
+    /**
+     * Build a codec from byte frequencies. Bytes that never occur get no code
+     * @param frequencies frequencies[b] is the number of times byte b occurs
+     * @param maxCodeLength the longest code allowed, between 8 and MAX_CODE_LENGTH
+     * @return the codec
+     */
+    public static HuffmanCodec fromFrequencies(long[] frequencies, int maxCodeLength){
+        if (maxCodeLength < 8 || maxCodeLength > MAX_CODE_LENGTH){
+            throw new IllegalArgumentException("Error: code length limit must be between 8 and " + MAX_CODE_LENGTH + ".");
+        }
+        int numUsed = 0;
+        for (long frequency : frequencies){
+            if (frequency > 0){
+                numUsed++;
+            }
+        }
+        long[] usedWeights = new long[numUsed];
+        int[] usedSymbols = new int[numUsed];
+        int index = 0;
+        for (int symbol = 0; symbol < NUM_SYMBOLS; symbol++){
+            if (frequencies[symbol] > 0){
+                usedWeights[index] = frequencies[symbol];
+                usedSymbols[index++] = symbol;
+            }
+        }
+        int[] lengths = new int[NUM_SYMBOLS];
+        if (numUsed == 1){ //a single byte value still needs one bit per byte
+            lengths[usedSymbols[0]] = 1;
+        }
+        else if (numUsed > 1){
+            HuffmanEncoder encoder = new HuffmanEncoder(usedWeights);
+            encoder.encodeLengthLimited(maxCodeLength);
+            for (int i = 0; i < numUsed; i++){
+                lengths[usedSymbols[i]] = encoder.getCodeLengths()[i];
+            }
+        }
+        return new HuffmanCodec(lengths);
+    }
+
+    /**
+     * Assign canonical codes: walk lengths from short to long, and bytes of equal length in increasing order,
+     * giving each the next code value
+     */
+    private void assignCanonicalCodes(){
+        int[] lengthCount = new int[MAX_CODE_LENGTH + 1];
+        for (int length : codeLengths){
+            lengthCount[length]++;
+        }
+        lengthCount[0] = 0;
+        long[] nextCode = new long[MAX_CODE_LENGTH + 2];
+        long code = 0;
+        for (int length = 1; length <= MAX_CODE_LENGTH; length++){
+            code = (code + lengthCount[length - 1]) << 1;
+            nextCode[length] = code;
+        }
+        for (int symbol = 0; symbol < NUM_SYMBOLS; symbol++){
+            int length = codeLengths[symbol];
+            if (length > 0){
+                if (nextCode[length] >= (1L << length)){
+                    throw new IllegalArgumentException("Error: code lengths do not form a prefix code.");
+                }
+                codes[symbol] = (int) nextCode[length]++;
+            }
+        }
+    }
+
+    /**
+     * Build the primary table over the first PRIMARY_BITS bits and one secondary table per long-code prefix
+     */
+    private void buildDecodeTables(){
+        primaryTable = new int[1 << PRIMARY_BITS];
+        int[] extraBits = new int[1 << PRIMARY_BITS]; //bits needed after each prefix by its longest code
+        for (int symbol = 0; symbol < NUM_SYMBOLS; symbol++){
+            int length = codeLengths[symbol];
+            if (length > PRIMARY_BITS){
+                int prefix = codes[symbol] >>> (length - PRIMARY_BITS);
+                extraBits[prefix] = Math.max(extraBits[prefix], length - PRIMARY_BITS);
+            }
+        }
+        int secondarySize = 0;
+        int[] offset = new int[1 << PRIMARY_BITS];
+        for (int prefix = 0; prefix < extraBits.length; prefix++){
+            if (extraBits[prefix] > 0){
+                offset[prefix] = secondarySize;
+                secondarySize += 1 << extraBits[prefix];
+                primaryTable[prefix] = SUBTABLE_FLAG | (offset[prefix] << 5) | extraBits[prefix];
+            }
+        }
+        secondaryTable = new int[secondarySize];
+
+        for (int symbol = 0; symbol < NUM_SYMBOLS; symbol++){
+            int length = codeLengths[symbol];
+            if (length == 0){
+                continue;
+            }
+            int entry = (symbol << 8) | length;
+            if (length <= PRIMARY_BITS){ //every index starting with the code decodes to this byte
+                int first = codes[symbol] << (PRIMARY_BITS - length);
+                for (int i = 0; i < (1 << (PRIMARY_BITS - length)); i++){
+                    primaryTable[first + i] = entry;
+                }
+            }
+            else{
+                int prefix = codes[symbol] >>> (length - PRIMARY_BITS);
+                int suffixBits = length - PRIMARY_BITS;
+                int suffix = codes[symbol] & ((1 << suffixBits) - 1);
+                int first = offset[prefix] + (suffix << (extraBits[prefix] - suffixBits));
+                for (int i = 0; i < (1 << (extraBits[prefix] - suffixBits)); i++){
+                    secondaryTable[first + i] = entry;
+                }
+            }
+        }
+    }
+
+    /**
+     * Encode every byte of the input channel into a bit stream on the output channel
+     * @param in the bytes to encode
+     * @param out the channel that receives the bit stream, padded with zero bits to a whole byte
+     * @return the number of bytes encoded
+     * @throws IOException throws error if reading or writing fails
+     */
+    public long encode(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE + 8);
+        byte[] inputBytes = input.array();
+        byte[] outputBytes = output.array();
+        int outPos = 0;
+        long bitBuffer = 0; //the lowest bitCount bits are pending output, most significant first
+        int bitCount = 0;
+        long numBytes = 0;
+
+        while (in.read(input) != -1){
+            int limit = input.position();
+            for (int i = 0; i < limit; i++){
+                int symbol = inputBytes[i] & 0xFF;
+                int length = codeLengths[symbol];
+                if (length == 0){
+                    throw new IllegalArgumentException("Error: byte " + symbol + " has no code in this codec.");
+                }
+                bitBuffer = (bitBuffer << length) | (codes[symbol] & 0xFFFFFFFFL); //32-bit codes must not sign-extend
+                bitCount += length;
+                if (bitCount >= 32){ //flush 32 bits at once
+                    int word = (int) (bitBuffer >>> (bitCount - 32));
+                    outputBytes[outPos] = (byte) (word >>> 24);
+                    outputBytes[outPos + 1] = (byte) (word >>> 16);
+                    outputBytes[outPos + 2] = (byte) (word >>> 8);
+                    outputBytes[outPos + 3] = (byte) word;
+                    outPos += 4;
+                    bitCount -= 32;
+                    if (outPos >= BUFFER_SIZE){
+                        writeFully(out, output, outPos);
+                        outPos = 0;
+                    }
+                }
+            }
+            numBytes += limit;
+            input.clear();
+        }
+        while (bitCount > 0){ //remaining bits, zero padded
+            int shift = bitCount - 8;
+            outputBytes[outPos++] = (byte) (shift >= 0 ? bitBuffer >>> shift : bitBuffer << -shift);
+            bitCount -= 8;
+        }
+        writeFully(out, output, outPos);
+        return numBytes;
+    }
+
+    /**
+     * Decode a bit stream back into bytes
+     * @param in the bit stream produced by encode
+     * @param numBytes the number of bytes that were encoded
+     * @param out the channel that receives the decoded bytes
+     * @throws IOException throws error if reading or writing fails
+     */
+    public void decode(ReadableByteChannel in, long numBytes, WritableByteChannel out) throws IOException {
+        ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] inputBytes = input.array();
+        byte[] outputBytes = output.array();
+        int inPos = 0;
+        int inLimit = 0;
+        boolean endOfInput = false;
+        int outPos = 0;
+        long window = 0; //the next available bits, left-aligned
+        int available = 0;
+
+        for (long decoded = 0; decoded < numBytes; decoded++){
+            if (available < 32 && inLimit - inPos >= 4){ //refill 32 bits at once
+                int word = ((inputBytes[inPos] & 0xFF) << 24) | ((inputBytes[inPos + 1] & 0xFF) << 16)
+                        | ((inputBytes[inPos + 2] & 0xFF) << 8) | (inputBytes[inPos + 3] & 0xFF);
+                window |= (word & 0xFFFFFFFFL) << (32 - available);
+                available += 32;
+                inPos += 4;
+            }
+            while (available < 32){ //refill byte by byte near the buffer end, past the end of input pad with zeros
+                if (inPos == inLimit && !endOfInput){
+                    input.clear();
+                    int read = in.read(input);
+                    while (read == 0){
+                        read = in.read(input);
+                    }
+                    endOfInput = read == -1;
+                    inPos = 0;
+                    inLimit = Math.max(0, read);
+                }
+                long next = (inPos < inLimit) ? inputBytes[inPos++] & 0xFF : 0;
+                window |= next << (56 - available);
+                available += 8;
+            }
+            int entry = primaryTable[(int) (window >>> (64 - PRIMARY_BITS))];
+            if (entry < 0){ //long code, look up the remaining bits in the secondary table
+                int extra = entry & 0x1F;
+                int offset = (entry & ~SUBTABLE_FLAG) >>> 5;
+                entry = secondaryTable[offset + (int) ((window << PRIMARY_BITS) >>> (64 - extra))];
+            }
+            int length = entry & 0xFF;
+            if (length == 0){
+                throw new IllegalArgumentException("Error: bit stream contains an invalid code.");
+            }
+            outputBytes[outPos++] = (byte) (entry >>> 8);
+            window <<= length;
+            available -= length;
+            if (outPos == BUFFER_SIZE){
+                writeFully(out, output, outPos);
+                outPos = 0;
+            }
+        }
+        writeFully(out, output, outPos);
+    }
+
+    private static void writeFully(WritableByteChannel out, ByteBuffer buffer, int length) throws IOException {
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining()){
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Compress a file: count byte frequencies in parallel, build the codec, then write header and bit stream
+     * @param inputFileName the file to compress
+     * @param outputFileName the compressed file
+     * @return the codec used
+     * @throws FileNotFoundException throws error if the input file is not found or a file cannot be accessed
+     */
+    public static HuffmanCodec compressFile(String inputFileName, String outputFileName) throws FileNotFoundException {
+        try (FileChannel in = FileChannel.open(Paths.get(inputFileName), StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(Paths.get(outputFileName), StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            long[] frequencies = ByteHistogram.count(inputFileName);
+            long total = 0;
+            for (long frequency : frequencies){
+                total += frequency;
+            }
+            HuffmanCodec codec = fromFrequencies(frequencies);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putLong(total);
+            for (int length : codec.codeLengths){
+                header.put((byte) length);
+            }
+            header.flip();
+            while (header.hasRemaining()){
+                out.write(header);
+            }
+            codec.encode(in, out);
+            return codec;
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+    }
+
+    /**
+     * Decompress a file written by compressFile
+     * @param inputFileName the compressed file
+     * @param outputFileName the decompressed file
+     * @throws FileNotFoundException throws error if the input file is not found or a file cannot be accessed
+     */
+    public static void decompressFile(String inputFileName, String outputFileName) throws FileNotFoundException {
+        try (FileChannel in = FileChannel.open(Paths.get(inputFileName), StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(Paths.get(outputFileName), StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && in.read(header) != -1){
+                //read the whole header
+            }
+            if (header.hasRemaining()){
+                throw new IllegalArgumentException("Error: compressed file is too short.");
+            }
+            header.flip();
+            long total = header.getLong();
+            int[] lengths = new int[NUM_SYMBOLS];
+            for (int symbol = 0; symbol < NUM_SYMBOLS; symbol++){
+                lengths[symbol] = header.get() & 0xFF;
+            }
+            new HuffmanCodec(lengths).decode(in, total, out);
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+    }
+
+    public int[] getCodeLengths() {
+        return codeLengths.clone();
+    }
+}
@@ -0,0 +1,121 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class measures HuffmanCodec compression and decompression throughput
+ *              on generated corpora: synthetic log lines, skewed random bytes and uniform random bytes.
+ *              Each corpus is written to a temporary file, compressed, decompressed and compared with the original.
+ **/
+public class HuffmanCodecBenchmark {
+    private static final int CORPUS_SIZE = 64 << 20;
+
+    /**
+     * Generate log-like text: timestamps, levels, thread names and a handful of message templates
+     */
+    public static byte[] logCorpus(int size, long seed){
+        Random random = new Random(seed);
+        String[] levels = {"INFO", "INFO", "INFO", "DEBUG", "WARN", "ERROR"};
+        String[] messages = {"request served in %d ms", "cache miss for key user:%d", "connection %d closed by peer",
+                "retrying job %d after timeout", "flushed %d records to disk"};
+        StringBuilder text = new StringBuilder(size + 256);
+        long time = 1612345678000L;
+        while (text.length() < size){
+            time += random.nextInt(50);
+            text.append(time).append(' ').append(levels[random.nextInt(levels.length)])
+                    .append(" [worker-").append(random.nextInt(16)).append("] ")
+                    .append(String.format(messages[random.nextInt(messages.length)], random.nextInt(100000)))
+                    .append('\n');
+        }
+        return Arrays.copyOf(text.toString().getBytes(), size);
+    }
+
+    /**
+     * Generate random bytes where byte value b occurs with probability proportional to 2^(-b/8)
+     */
+    public static byte[] skewedCorpus(int size, long seed){
+        Random random = new Random(seed);
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++){
+            bytes[i] = (byte) Math.min(255, (int) (-8 * Math.log(1 - random.nextDouble()) / Math.log(2)));
+        }
+        return bytes;
+    }
+
+    public static byte[] uniformCorpus(int size, long seed){
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static void run(String name, byte[] corpus) throws IOException {
+        Path original = Files.createTempFile("huffman-original", ".bin");
+        Path compressed = Files.createTempFile("huffman-compressed", ".huf");
+        Path restored = Files.createTempFile("huffman-restored", ".bin");
+        try {
+            Files.write(original, corpus);
+            HuffmanCodec.compressFile(original.toString(), compressed.toString()); //warm-up
+            HuffmanCodec.decompressFile(compressed.toString(), restored.toString());
+
+            long start = System.nanoTime();
+            HuffmanCodec.compressFile(original.toString(), compressed.toString());
+            long afterCompress = System.nanoTime();
+            HuffmanCodec.decompressFile(compressed.toString(), restored.toString());
+            long afterDecompress = System.nanoTime();
+
+            if (!Arrays.equals(corpus, Files.readAllBytes(restored))){
+                throw new IllegalStateException("Error: " + name + " corpus did not round-trip.");
+            }
+            double megabytes = corpus.length / (double) (1 << 20);
+            System.out.printf("%-8s ratio %5.3f  compress %8.1f MB/s  decompress %8.1f MB/s%n", name,
+                    Files.size(compressed) / (double) corpus.length,
+                    megabytes / ((afterCompress - start) / 1e9), megabytes / ((afterDecompress - afterCompress) / 1e9));
+        }
+        finally {
+            Files.deleteIfExists(original);
+            Files.deleteIfExists(compressed);
+            Files.deleteIfExists(restored);
+        }
+    }
+
+    /**
+     * Round-trip bytes through a codec whose longest codes have exactly MAX_CODE_LENGTH bits.
+     * Byte b < MAX_CODE_LENGTH gets a code of b+1 bits and byte MAX_CODE_LENGTH another code of MAX_CODE_LENGTH bits,
+     * the most skewed complete code
+     */
+    private static void checkLongestCodes() throws IOException {
+        int[] codeLengths = new int[HuffmanCodec.NUM_SYMBOLS];
+        for (int symbol = 0; symbol < HuffmanCodec.MAX_CODE_LENGTH; symbol++){
+            codeLengths[symbol] = symbol + 1;
+        }
+        codeLengths[HuffmanCodec.MAX_CODE_LENGTH] = HuffmanCodec.MAX_CODE_LENGTH;
+        HuffmanCodec codec = new HuffmanCodec(codeLengths);
+        byte[] corpus = new byte[64 * (HuffmanCodec.MAX_CODE_LENGTH + 1)];
+        for (int i = 0; i < corpus.length; i++){
+            corpus[i] = (byte) (i * 7 % (HuffmanCodec.MAX_CODE_LENGTH + 1));
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        codec.encode(Channels.newChannel(new ByteArrayInputStream(corpus)), Channels.newChannel(encoded));
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        codec.decode(Channels.newChannel(new ByteArrayInputStream(encoded.toByteArray())), corpus.length,
+                Channels.newChannel(decoded));
+        if (!Arrays.equals(corpus, decoded.toByteArray())){
+            throw new IllegalStateException("Error: codes of " + HuffmanCodec.MAX_CODE_LENGTH + " bits did not round-trip.");
+        }
+        System.out.println("codes of " + HuffmanCodec.MAX_CODE_LENGTH + " bits round-trip");
+    }
+
+    public static void main(String[] args) throws IOException {
+        checkLongestCodes();
+        run("logs", logCorpus(CORPUS_SIZE, 1));
+        run("skewed", skewedCorpus(CORPUS_SIZE, 2));
+        run("uniform", uniformCorpus(CORPUS_SIZE, 3));
+    }
+}
@@ -1,9 +1,8 @@
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.security.PublicKey;
-import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.Random;
 import java.util.Scanner;
 
 /**
@@ -29,20 +28,22 @@ import java.util.Scanner;
  *              try debugging your algorithm using some small test cases.
  *              And then post them to the discussion forum!
  *
+ *              The tree is built with the two-queue method: symbols are sorted by weight once, and merged nodes
+ *              are created in non-decreasing weight order, so the two lightest nodes are always at the front of
+ *              either the sorted symbol queue or the merged node queue. The merge is O(n) after the O(n*log(n))
+ *              primitive sort, and code lengths are read off a parent array without recursion.
+ *
  * @author : Zitao He
  * @date : 2021-02-05 21:26
  **/
 public class HuffmanEncoder {
 
     private int numSymbols;
-    private int[] weights;
-    private HashSet<Node> nodes;
-    private PriorityQueue<Node> tree;
+    private long[] weights;
+    private int[] codeLengths; //codeLengths[i] is the number of bits of symbol i, filled by encode()
 
     public HuffmanEncoder(String fileInputName) throws FileNotFoundException {
         Scanner fileScanner;
-        nodes = new HashSet<>();
-        tree = new PriorityQueue<>();
         try{
             fileScanner = new Scanner(new File(fileInputName));
         }
@@ -50,144 +51,286 @@ public class HuffmanEncoder {
             throw new FileNotFoundException("Error: Input file is not found.");
         }
         numSymbols = Integer.parseInt(fileScanner.nextLine());
-        weights = new int[numSymbols];
+        weights = new long[numSymbols];
         int index = 0;
         while (fileScanner.hasNextLine()){
-            int currWeight = Integer.parseInt(fileScanner.nextLine());
-            weights[index++] = currWeight;
-            Node currnNode = new Node(currWeight, null, null, true);
-            nodes.add(currnNode);
-            tree.add(currnNode);
+            weights[index++] = Long.parseLong(fileScanner.nextLine());
         }
     }
 
+    /**
+     * Construct the encoder from symbol weights
+     * @param weights weights[i] is the weight of symbol i, used directly and not copied
+     */
+    public HuffmanEncoder(long[] weights){
+        this.numSymbols = weights.length;
+        this.weights = weights;
+    }
+
+    /**
+     * Construct the encoder from a raw file, using the frequency of each byte value as its weight.
+     * The frequencies are counted in parallel by ByteHistogram
+     * @param fileInputName the raw file
+     * @return the encoder over the 256 byte values
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public static HuffmanEncoder fromRawFile(String fileInputName) throws FileNotFoundException {
+        return new HuffmanEncoder(ByteHistogram.count(fileInputName));
+    }
+
     /**
      * Encode the Huffman tree. Find two nodes that have the lowest weights. Merge them to form
      * a parent node. Do this for all nodes until a tree is formed.
-     * Each leaf in the Huffman tree represents one symbol. The height-1 of each left is the number of bits
+     * Each leaf in the Huffman tree represents one symbol. The depth of each leaf is the number of bits
      * it needs to encode the message.
      */
     public void encode(){
-        while (!tree.isEmpty() && tree.size() >= 2){
-            Node nodeX = tree.poll();
-            Node nodeY = tree.poll();
-            Node nodeXY = new Node(nodeX.getWeight()+nodeY.getWeight(), nodeX, nodeY, false);
-            nodeX.incrementChildrenHeight();
-            nodeY.incrementChildrenHeight();
-            nodes.add(nodeXY);
-            tree.add(nodeXY);
-        }
+        codeLengths = computeCodeLengths();
     }
 
     /**
-     * Get the minimum number of bits of a symbol in the complete Huffman tree
-     * @return minimum number of bits
+     * Run the two-queue Huffman merge
+     * @return codeLengths[i] is the number of bits of symbol i
      */
-    public int getMinCodeBits(){
-        int minHeight = Integer.MAX_VALUE;
-        for (Node node : nodes){
-            if(node.isLeaf() && node.getHeight()<minHeight){
-                minHeight = node.getHeight();
+    private int[] computeCodeLengths(){
+        int[] lengths = new int[numSymbols];
+        if (numSymbols < 2){ //a single symbol needs no bits
+            return lengths;
+        }
+        int[] sortedSymbols = sortByWeight();
+        int n = numSymbols;
+        long[] mergedWeight = new long[n - 1]; //merged node t is node n+t, created in non-decreasing weight order
+        int[] parent = new int[2 * n - 1]; //leaves are nodes 0..n-1
+        int nextSymbol = 0;
+        int mergedHead = 0;
+
+        for (int t = 0; t < n - 1; t++){
+            long sum = 0;
+            for (int pick = 0; pick < 2; pick++){ //take the lighter front of the two queues, twice
+                if (nextSymbol < n && (mergedHead == t || weights[sortedSymbols[nextSymbol]] <= mergedWeight[mergedHead])){
+                    int symbol = sortedSymbols[nextSymbol++];
+                    sum += weights[symbol];
+                    parent[symbol] = n + t;
+                }
+                else{
+                    sum += mergedWeight[mergedHead];
+                    parent[n + mergedHead++] = n + t;
+                }
             }
+            mergedWeight[t] = sum;
         }
-        return minHeight-1;
+
+        int[] mergedDepth = new int[n - 1]; //root is node 2n-2 with depth 0, parents always come after children
+        for (int t = n - 3; t >= 0; t--){
+            mergedDepth[t] = mergedDepth[parent[n + t] - n] + 1;
+        }
+        for (int symbol = 0; symbol < n; symbol++){
+            lengths[symbol] = mergedDepth[parent[symbol] - n] + 1;
+        }
+        return lengths;
     }
 
     /**
-     * Get the maximum number of bits of a symbol in the complete Huffman tree
-     * @return maximum number of bits
+     * Encode with a limit on the code length. The code lengths are the optimal ones among all prefix codes
+     * whose longest code has at most maxBits bits
+     * @param maxBits the longest code allowed
      */
-    public int getMaxCodeBits(){
-        int maxHeight = Integer.MIN_VALUE;
-        for (Node node : nodes){
-            if(node.isLeaf() && node.getHeight()>maxHeight){
-                maxHeight = node.getHeight();
-            }
-        }
-        return maxHeight-1;
+    public void encodeLengthLimited(int maxBits){
+        codeLengths = computeLengthLimitedCodeLengths(maxBits);
     }
 
-    public void printEncoder(){
-        System.out.println("This encoder has # of symbols: " + numSymbols);
-        System.out.println("The weights array of this encoder is: ");
+    /**
+     * Run the package-merge algorithm. Level maxBits holds the symbols sorted by weight. Each shallower level
+     * merges the symbols with "packages" made by pairing neighbouring items of the level below, keeping only
+     * the lightest 2n-2 items. Choosing the first 2n-2 items of level 1 and following the packages down selects,
+     * at every level, a prefix of the sorted symbols; the code length of a symbol is the number of levels in which
+     * it is selected. Only one bit per item and level is stored to follow packages down, so memory is
+     * O(n) words plus O(n*maxBits) bits, and time is O(n*maxBits).
+     * @param maxBits the longest code allowed
+     * @return codeLengths[i] is the number of bits of symbol i
+     */
+    private int[] computeLengthLimitedCodeLengths(int maxBits){
+        int n = numSymbols;
+        if (n < 2){
+            return new int[n];
+        }
+        if (maxBits < 1 || maxBits > 62 || (1L << maxBits) < n){
+            throw new IllegalArgumentException("Error: " + n + " symbols cannot be coded in at most " + maxBits + " bits.");
+        }
+        int[] sortedSymbols = sortByWeight();
+        int maxItems = 2 * n - 2;
+        long[][] isSymbol = new long[maxBits + 1][]; //isSymbol[d] bit j: item j of level d is a symbol, not a package
+        int[] levelSize = new int[maxBits + 1];
 
-        for (int i = 0; i<numSymbols; i++){
-            System.out.println(weights[i]);
+        long[] items = new long[maxItems]; //weights of the current level
+        long[] merged = new long[maxItems];
+        int size = Math.min(n, maxItems);
+        isSymbol[maxBits] = new long[(maxItems + 63) >>> 6];
+        for (int j = 0; j < size; j++){
+            items[j] = weights[sortedSymbols[j]];
+            isSymbol[maxBits][j >>> 6] |= 1L << j;
         }
-        System.out.println("Encoder tree is: ");
+        levelSize[maxBits] = size;
 
-        for (Node node : nodes){
-            System.out.println(node);
+        for (int d = maxBits - 1; d >= 1; d--){
+            long[] flags = new long[(maxItems + 63) >>> 6];
+            int numPackages = size / 2;
+            int nextSymbol = 0;
+            int nextPackage = 0;
+            int mergedSize = 0;
+            while (mergedSize < maxItems && (nextSymbol < n || nextPackage < numPackages)){
+                long packageWeight = (nextPackage < numPackages)
+                        ? items[2 * nextPackage] + items[2 * nextPackage + 1] : Long.MAX_VALUE;
+                if (nextSymbol < n && weights[sortedSymbols[nextSymbol]] <= packageWeight){
+                    merged[mergedSize] = weights[sortedSymbols[nextSymbol++]];
+                    flags[mergedSize >>> 6] |= 1L << mergedSize;
+                }
+                else{
+                    merged[mergedSize] = packageWeight;
+                    nextPackage++;
+                }
+                mergedSize++;
+            }
+            long[] temp = items;
+            items = merged;
+            merged = temp;
+            size = mergedSize;
+            isSymbol[d] = flags;
+            levelSize[d] = size;
         }
+
+        int[] lengthChange = new int[n + 1]; //symbols 0..selected-1 of each level get one more bit
+        int selectedItems = maxItems;
+        for (int d = 1; d <= maxBits && selectedItems > 0; d++){
+            int selectedSymbols = 0;
+            for (int j = 0; j < selectedItems; j++){
+                if ((isSymbol[d][j >>> 6] & (1L << j)) != 0){
+                    selectedSymbols++;
+                }
+            }
+            lengthChange[0]++;
+            lengthChange[selectedSymbols]--;
+            selectedItems = 2 * (selectedItems - selectedSymbols); //each selected package selects two items below
+        }
+        int[] lengths = new int[n];
+        int length = 0;
+        for (int j = 0; j < n; j++){
+            length += lengthChange[j];
+            lengths[sortedSymbols[j]] = length;
+        }
+        return lengths;
     }
 
     /**
-     * Helper method to define a node in Huffman tree
+     * Sort symbols by weight as packed primitive keys: the weight in the high bits and the symbol in the low bits,
+     * so equal weights are ordered by symbol
+     * @return symbols sorted by weight
      */
-    private static class Node implements Comparable<Node> {
-        //private final int id;
-        private final int weight;
-        private final Node left, right;
-        private final boolean isLeaf;
-        private int height;
-
-        /**
-         * Construct a node
-         * @param weight the weight of the node
-         * @param left the left child of the node
-         * @param right the right child of the node
-         * @param isLeaf if the node to be created is a leaf
-         */
-        Node(int weight, Node left, Node right, boolean isLeaf) {
-            if (isLeaf == true && (left != null || right != null)){
-                throw new IllegalArgumentException("Error: when the node is a leaf, " +
-                        "both left and right node have to be null");
-            }
-            this.weight = weight;
-            this.left  = left;
-            this.right = right;
-            this.isLeaf = isLeaf;
-            this.height = 1;
-        }
-
-        /**
-         * Increment all children's height by 1 (when this node is merged with another)
-         */
-        public void incrementChildrenHeight(){
-            height++;
-            if (left == null && right == null){
-                return;
+    private int[] sortByWeight(){
+        int symbolBits = 32 - Integer.numberOfLeadingZeros(numSymbols - 1);
+        long[] keys = new long[numSymbols];
+        for (int i = 0; i < numSymbols; i++){
+            if (weights[i] < 0 || weights[i] >= (1L << (63 - symbolBits))){
+                throw new IllegalArgumentException("Error: weight of symbol " + i + " is negative or too large.");
             }
-            this.left.incrementChildrenHeight();
-            this.right.incrementChildrenHeight();
-
+            keys[i] = (weights[i] << symbolBits) | i;
+        }
+        Arrays.sort(keys);
+        int[] sortedSymbols = new int[numSymbols];
+        long symbolMask = (1L << symbolBits) - 1;
+        for (int i = 0; i < numSymbols; i++){
+            sortedSymbols[i] = (int) (keys[i] & symbolMask);
         }
+        return sortedSymbols;
+    }
 
-        private boolean isLeaf() {
-            return isLeaf;
+    /**
+     * Get the minimum number of bits of a symbol in the complete Huffman tree.
+     * Runs encode() first if no code lengths have been computed yet
+     * @return minimum number of bits
+     */
+    public int getMinCodeBits(){
+        if (codeLengths == null){
+            encode();
         }
+        int minBits = Integer.MAX_VALUE;
+        for (int bits : codeLengths){
+            minBits = Math.min(minBits, bits);
+        }
+        return minBits;
+    }
 
-        public int compareTo(Node other) {
-            return this.weight - other.weight;
+    /**
+     * Get the maximum number of bits of a symbol in the complete Huffman tree.
+     * Runs encode() first if no code lengths have been computed yet
+     * @return maximum number of bits
+     */
+    public int getMaxCodeBits(){
+        if (codeLengths == null){
+            encode();
+        }
+        int maxBits = Integer.MIN_VALUE;
+        for (int bits : codeLengths){
+            maxBits = Math.max(maxBits, bits);
         }
+        return maxBits;
+    }
 
-        @Override
-        public String toString() {
-            return "Node{" +
-                    "weight=" + weight +
-                    ", left=" + left +
-                    ", right=" + right +
-                    ", isLeaf=" + isLeaf +
-                    ", height=" + height +
-                    '}';
+    /**
+     * Get the total number of bits of the message with the current code lengths,
+     * i.e. the sum over all symbols of weight times code length.
+     * Runs encode() first if no code lengths have been computed yet
+     * @return the encoded size in bits
+     */
+    public long getEncodedBits(){
+        if (codeLengths == null){
+            encode();
         }
-        public int getHeight(){
-            return height;
+        long bits = 0;
+        for (int i = 0; i < numSymbols; i++){
+            bits += weights[i] * codeLengths[i];
         }
+        return bits;
+    }
 
-        public int getWeight(){
-            return weight;
+    /**
+     * Print how much a limit on the code length costs compared with the unconstrained Huffman code.
+     * Leaves the length-limited code lengths in this encoder
+     * @param maxBits the longest code allowed
+     */
+    public void printLengthLimitReport(int maxBits){
+        encode();
+        int unlimitedMaxBits = getMaxCodeBits();
+        long unlimitedBits = getEncodedBits();
+        encodeLengthLimited(maxBits);
+        long limitedBits = getEncodedBits();
+        System.out.println("Unconstrained Huffman code: max code bits " + unlimitedMaxBits + ", encoded bits " + unlimitedBits);
+        System.out.println("Code limited to " + maxBits + " bits: max code bits " + getMaxCodeBits()
+                + ", encoded bits " + limitedBits);
+        System.out.printf("Cost of the limit: %d bits (%.4f%%)%n", limitedBits - unlimitedBits,
+                unlimitedBits == 0 ? 0.0 : 100.0 * (limitedBits - unlimitedBits) / unlimitedBits);
+    }
+
+    /**
+     * Get the code length of every symbol, available after encode()
+     * @return codeLengths[i] is the number of bits of symbol i
+     */
+    public int[] getCodeLengths(){
+        return codeLengths;
+    }
+
+    public long[] getWeights(){
+        return weights;
+    }
+
+    public void printEncoder(){
+        System.out.println("This encoder has # of symbols: " + numSymbols);
+        System.out.println("The weights array of this encoder is: ");
+
+        for (int i = 0; i<numSymbols; i++){
+            System.out.println(weights[i]);
         }
+        System.out.println("Code lengths are: " + Arrays.toString(codeLengths));
     }
 
     public static void main(String[] args) throws FileNotFoundException {
@@ -195,9 +338,19 @@ public class HuffmanEncoder {
         //HuffmanEncoder tester = new HuffmanEncoder("data/huffman-test1.txt"); //Min code length = 2. Max code length = 5
         //HuffmanEncoder tester = new HuffmanEncoder("data/huffman-test2.txt"); // Min code length = 3. Max code length = 6
         tester.encode();
-        System.out.println("Min code bits is: " + tester.getMaxCodeBits());
+        System.out.println("Max code bits is: " + tester.getMaxCodeBits());
         System.out.println("Min code bits is: " + tester.getMinCodeBits());
         //correct answer is 19 and 9
 
+        tester.printLengthLimitReport(12);
+
+        long[] randomWeights = new long[1 << 20];
+        Random random = new Random(1);
+        for (int i = 0; i < randomWeights.length; i++){
+            randomWeights[i] = 1 + random.nextInt(1 << 24);
+        }
+        long start = System.nanoTime();
+        new HuffmanEncoder(randomWeights).encode();
+        System.out.println("Encoded " + randomWeights.length + " symbols in " + (System.nanoTime() - start) / 1e6 + " ms");
     }
 }
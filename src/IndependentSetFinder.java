@@ -40,7 +40,7 @@ import java.util.*;
 public class IndependentSetFinder {
     int numVertices;
     int[] weights;
-    int[] maxWIS; // i_th value is the maximum weight of a independent set in subgraph that has i_th first vertices
+    long[] maxWIS; // i_th value is the maximum weight of a independent set in subgraph that has i_th first vertices
 
     /**
      * Construct the path graph using external txt file. File format can be found in class description
@@ -56,7 +56,7 @@ public class IndependentSetFinder {
         }
         numVertices = Integer.parseInt(fileScanner.nextLine());
         weights = new int[numVertices];
-        maxWIS = new int[numVertices+1];
+        maxWIS = new long[numVertices+1];
         int index = 0;
         while (fileScanner.hasNextLine()) {
             int currWeight = Integer.parseInt(fileScanner.nextLine());
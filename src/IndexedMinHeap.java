@@ -0,0 +1,137 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class represents an indexed binary min-heap over the integers 0..capacity-1.
+ *              Every index carries an int key, and the key of an index already in the heap can be decreased
+ *              in O(log n), which is what Prim's algorithm needs to keep the cheapest crossing edge of every vertex.
+ **/
+public class IndexedMinHeap {
+    private int size;
+    private int[] heap; //heap[p] is the index stored at heap position p
+    private int[] position; //position[i] is the heap position of index i, -1 if i is not in the heap
+    private int[] keys; //keys[i] is the key of index i
+
+    /**
+     * Constructor of IndexedMinHeap
+     * @param capacity indices in this heap range from 0 to capacity-1
+     */
+    public IndexedMinHeap(int capacity){
+        this.size = 0;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Check if an index is currently in the heap
+     * @param index the index to check
+     * @return true if the index is in the heap
+     */
+    public boolean contains(int index){
+        return position[index] != -1;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Get the key of an index that is in the heap
+     * @param index the index
+     * @return the key associated with the index
+     */
+    public int keyOf(int index){
+        if (!contains(index)){
+            throw new NoSuchElementException("Error: index " + index + " is not in the heap.");
+        }
+        return keys[index];
+    }
+
+    /**
+     * Insert an index with its key
+     * @param index the index to insert
+     * @param key the key of the index
+     */
+    public void insert(int index, int key){
+        if (contains(index)){
+            throw new IllegalArgumentException("Error: index " + index + " is already in the heap.");
+        }
+        keys[index] = key;
+        heap[size] = index;
+        position[index] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Decrease the key of an index that is in the heap
+     * @param index the index whose key is decreased
+     * @param key the new key, which must not be larger than the current key
+     */
+    public void decreaseKey(int index, int key){
+        if (key > keyOf(index)){
+            throw new IllegalArgumentException("Error: new key is larger than the current key.");
+        }
+        keys[index] = key;
+        siftUp(position[index]);
+    }
+
+    /**
+     * Remove the index with the smallest key
+     * @return the index with the smallest key
+     */
+    public int delMin(){
+        if (size == 0){
+            throw new NoSuchElementException("Error: heap is empty.");
+        }
+        int min = heap[0];
+        swap(0, --size);
+        position[min] = -1;
+        if (size > 0){
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int p){
+        while (p > 0){
+            int parent = (p - 1) >>> 1;
+            if (keys[heap[parent]] <= keys[heap[p]]){
+                break;
+            }
+            swap(p, parent);
+            p = parent;
+        }
+    }
+
+    private void siftDown(int p){
+        while (true){
+            int child = 2 * p + 1;
+            if (child >= size){
+                break;
+            }
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]){
+                child++;
+            }
+            if (keys[heap[p]] <= keys[heap[child]]){
+                break;
+            }
+            swap(p, child);
+            p = child;
+        }
+    }
+
+    private void swap(int p, int q){
+        int temp = heap[p];
+        heap[p] = heap[q];
+        heap[q] = temp;
+        position[heap[p]] = p;
+        position[heap[q]] = q;
+    }
+}
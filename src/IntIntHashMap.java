@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class represents a hash map from int keys to non-negative int values.
+ *              Keys and values are kept in two primitive arrays with open addressing and linear probing,
+ *              so no object is created per entry. A value of -1 marks an empty slot.
+ **/
+public class IntIntHashMap {
+    private static final int EMPTY = -1;
+
+    private int size;
+    private int mask; //capacity - 1, capacity is a power of two
+    private int[] keys;
+    private int[] values;
+
+    /**
+     * Constructor of IntIntHashMap
+     * @param expectedSize the number of entries expected, the table is sized to stay at most half full
+     */
+    public IntIntHashMap(int expectedSize){
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity){
+        this.mask = capacity - 1;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+    }
+
+    /**
+     * Slot where probing for a key starts. The key is scrambled by a multiplicative hash
+     * so that nearby keys (codes that differ in a few low bits) spread over the table
+     */
+    private int slot(int key){
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Get the value of a key
+     * @param key the key
+     * @return the value of the key, -1 if the key is not in the map
+     */
+    public int get(int key){
+        for (int s = slot(key); ; s = (s + 1) & mask){
+            if (values[s] == EMPTY || keys[s] == key){
+                return values[s];
+            }
+        }
+    }
+
+    /**
+     * Put a key with its value if the key is not in the map yet
+     * @param key the key
+     * @param value the value, must not be negative
+     * @return the value already in the map, or -1 if the key was added
+     */
+    public int putIfAbsent(int key, int value){
+        if (value < 0){
+            throw new IllegalArgumentException("Error: values must not be negative.");
+        }
+        for (int s = slot(key); ; s = (s + 1) & mask){
+            if (values[s] == EMPTY){
+                keys[s] = key;
+                values[s] = value;
+                if (++size > (mask + 1) / 2){
+                    rehash();
+                }
+                return EMPTY;
+            }
+            if (keys[s] == key){
+                return values[s];
+            }
+        }
+    }
+
+    private void rehash(){
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(2 * (mask + 1));
+        size = 0;
+        for (int s = 0; s < oldKeys.length; s++){
+            if (oldValues[s] != EMPTY){
+                putIfAbsent(oldKeys[s], oldValues[s]);
+            }
+        }
+    }
+
+    public int size(){
+        return size;
+    }
+}
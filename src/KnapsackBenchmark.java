@@ -0,0 +1,119 @@
+import java.io.FileNotFoundException;
+import java.util.Random;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class compares the running time of the knapsack dynamic programming engines
+ *              on knapsack_big.txt (knapsack size 2,000,000 and 2,000 items).
+ *
+ *              The two-row engine fills a second row for every item and then copies it back into the first row,
+ *              so each item reads and writes about two full rows. The single-row engine updates one long[] in place
+ *              from the largest size down and never visits sizes below the item weight.
+ *              Item reconstruction (Hirschberg style) repeats the single row work on halves of the items,
+ *              about twice the work of the value alone.
+ *              The Pareto frontier engine does not depend on the knapsack size at all, only on the number of
+ *              non-dominated (weight, value) totals, which is small for this instance.
+ *              Before timing, main checks the item counts of the single row engine against expanded copies.
+ **/
+public class KnapsackBenchmark {
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+
+    /**
+     * The former two-row engine of KnapsackOptimizer, kept as the baseline
+     * @return the optimal total value
+     */
+    static int runTwoRowOptimization(KnapsackOptimizer optimizer){
+        int[][] fastSolutionMatrix = new int[2][optimizer.knapsackSize+1];
+        for (int i = 1; i <= optimizer.numItems; i++){
+            int w = optimizer.weight[i-1];
+            for (int x = 0; x <= optimizer.knapsackSize; x++){
+                if (w > x) {
+                    fastSolutionMatrix[1][x] = fastSolutionMatrix[0][x];
+                }
+                else{
+                    fastSolutionMatrix[1][x] = Math.max(fastSolutionMatrix[0][x], fastSolutionMatrix[0][x-w]+optimizer.value[i-1]);
+                }
+            }
+            for (int j = 0; j < fastSolutionMatrix[1].length; j ++){
+                fastSolutionMatrix[0][j] = fastSolutionMatrix[1][j];
+            }
+        }
+        return fastSolutionMatrix[1][optimizer.knapsackSize];
+    }
+
+    /**
+     * Check the single row engine with item counts against expanding every item into its copies, on random
+     * instances that include items of weight 0, unlimited items and items with more copies than fit
+     * @param numInstances the number of random instances
+     */
+    static void checkCountsAgainstExpansion(int numInstances){
+        Random random = new Random(7);
+        for (int t = 0; t < numInstances; t++){
+            int numItems = 1 + random.nextInt(8);
+            int knapsackSize = random.nextInt(300);
+            int[] value = new int[numItems];
+            int[] weight = new int[numItems];
+            int[] count = new int[numItems];
+            int numCopies = 0;
+            for (int i = 0; i < numItems; i++){
+                value[i] = 1 + random.nextInt(50);
+                weight[i] = (random.nextInt(6) == 0) ? 0 : 1 + random.nextInt(60);
+                count[i] = (random.nextInt(8) == 0 && weight[i] > 0) ? KnapsackOptimizer.UNBOUNDED : random.nextInt(12);
+                numCopies += (count[i] == KnapsackOptimizer.UNBOUNDED) ? knapsackSize / weight[i] : count[i];
+            }
+            int[] expandedValue = new int[numCopies];
+            int[] expandedWeight = new int[numCopies];
+            int copy = 0;
+            for (int i = 0; i < numItems; i++){
+                int copies = (count[i] == KnapsackOptimizer.UNBOUNDED) ? knapsackSize / weight[i] : count[i];
+                for (int k = 0; k < copies; k++, copy++){
+                    expandedValue[copy] = value[i];
+                    expandedWeight[copy] = weight[i];
+                }
+            }
+            KnapsackOptimizer withCounts = new KnapsackOptimizer(knapsackSize, value, weight, count);
+            KnapsackOptimizer expanded = new KnapsackOptimizer(knapsackSize, expandedValue, expandedWeight);
+            withCounts.runFastOptimization();
+            expanded.runFastOptimization();
+            if (withCounts.getFastOptimalValueSum() != expanded.getFastOptimalValueSum()){
+                throw new IllegalStateException("Error: item counts and expanded copies disagree on instance " + t + ".");
+            }
+        }
+    }
+
+    /**
+     * Time one engine
+     * @return average running time in milliseconds
+     */
+    private static double time(Runnable engine){
+        for (int i = 0; i < WARMUP_ROUNDS; i++){
+            engine.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++){
+            engine.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        checkCountsAgainstExpansion(3000);
+        System.out.println("Item counts agree with expanded copies on 3000 random instances");
+        KnapsackOptimizer optimizer = new KnapsackOptimizer("data/knapsack_big.txt");
+        optimizer.runFastOptimization();
+        if (optimizer.getFastOptimalValueSum() != runTwoRowOptimization(optimizer)){
+            throw new IllegalStateException("Error: knapsack engines disagree on the optimal value.");
+        }
+        System.out.println("Optimal value: " + optimizer.getFastOptimalValueSum()); //correct answer is 4243395
+
+        double twoRow = time(() -> runTwoRowOptimization(optimizer));
+        double singleRow = time(optimizer::runFastOptimization);
+        System.out.printf("%-22s %10.1f ms%n", "two rows + copy", twoRow);
+        System.out.printf("%-22s %10.1f ms  (%.2fx)%n", "single row in place", singleRow, twoRow / singleRow);
+        double items = time(optimizer::reconstructOptimalItems);
+        System.out.printf("%-22s %10.1f ms  (%.2fx of value only)%n", "item reconstruction", items, items / singleRow);
+        double frontier = time(() -> new ParetoKnapsackOptimizer(optimizer).runOptimization());
+        System.out.printf("%-22s %10.1f ms  (%.2fx)%n", "Pareto frontier", frontier, twoRow / frontier);
+    }
+}
@@ -0,0 +1,228 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class answers knapsack queries for many knapsack sizes over the same items.
+ *
+ *              The final row of the single row algorithm holds the optimal value for every knapsack size 0..W, so the
+ *              dynamic programming runs once, up to the largest size asked for, and every query is one array read.
+ *              The row can be saved to a file and loaded back later, which skips the dynamic programming entirely.
+ *              A loaded file is memory-mapped and queried in place, so loading does not read the whole row.
+ *
+ *              File format (big endian): magic number, largest knapsack size W, number of items, hash of the items,
+ *              then the W+1 optimal values, all as 8-byte longs.
+ **/
+public class KnapsackCapacityTable {
+    private static final long MAGIC = 0x4B4E41505341434BL; //"KNAPSACK"
+    private static final int HEADER_LONGS = 4;
+    private static final int WINDOW_BITS = 27; //values per mapped window: 2^27 longs, 1 GB
+
+    private int maxCapacity;
+    private int numItems;
+    private long itemsHash;
+    private long[] row; //row[x] is the optimal value with knapsack size x, null if the table is mapped
+    private LongBuffer[] windows; //the values of a loaded file, 2^27 per window
+
+    private KnapsackCapacityTable(int maxCapacity, int numItems, long itemsHash){
+        this.maxCapacity = maxCapacity;
+        this.numItems = numItems;
+        this.itemsHash = itemsHash;
+    }
+
+    /**
+     * Build the table for every knapsack size up to the largest one requested
+     * @param items the items
+     * @param capacities the knapsack sizes that will be queried
+     * @return the table
+     */
+    public static KnapsackCapacityTable build(KnapsackOptimizer items, int[] capacities){
+        int maxCapacity = 0;
+        for (int capacity : capacities){
+            if (capacity < 0){
+                throw new IllegalArgumentException("Error: capacity " + capacity + " is negative.");
+            }
+            maxCapacity = Math.max(maxCapacity, capacity);
+        }
+        return build(items, maxCapacity);
+    }
+
+    /**
+     * Build the table for every knapsack size 0..maxCapacity with one dynamic programming pass
+     * @param items the items
+     * @param maxCapacity the largest knapsack size
+     * @return the table
+     */
+    public static KnapsackCapacityTable build(KnapsackOptimizer items, int maxCapacity){
+        KnapsackCapacityTable table = new KnapsackCapacityTable(maxCapacity, items.numItems, hashItems(items));
+        table.row = items.computeValueRow(maxCapacity);
+        return table;
+    }
+
+    /**
+     * Hash the values, weights and counts, so a saved table can be checked against the items it was built from
+     */
+    static long hashItems(KnapsackOptimizer items){
+        long h = items.numItems;
+        for (int i = 0; i < items.numItems; i++){
+            h = (h * 31 + items.value[i]) * 0x9E3779B97F4A7C15L;
+            h = (h * 31 + items.weight[i]) * 0x9E3779B97F4A7C15L;
+            h = (h * 31 + ((items.count == null) ? 1 : items.count[i])) * 0x9E3779B97F4A7C15L;
+        }
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Get the optimal total value for one knapsack size, O(1)
+     * @param capacity the knapsack size, from 0 to the largest size of the table
+     * @return the optimal total value
+     */
+    public long optimalValue(int capacity){
+        if (capacity < 0 || capacity > maxCapacity){
+            throw new IllegalArgumentException("Error: capacity " + capacity + " is not in 0.." + maxCapacity + ".");
+        }
+        if (row != null){
+            return row[capacity];
+        }
+        return windows[capacity >>> WINDOW_BITS].get(capacity & ((1 << WINDOW_BITS) - 1));
+    }
+
+    /**
+     * Get the optimal total values for a batch of knapsack sizes
+     * @param capacities the knapsack sizes
+     * @return values[i] is the optimal total value for capacities[i]
+     */
+    public long[] optimalValues(int[] capacities){
+        long[] values = new long[capacities.length];
+        for (int i = 0; i < capacities.length; i++){
+            values[i] = optimalValue(capacities[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Check whether the table was built from a set of items
+     * @param items the items
+     * @return true if the number of items and the item hash match
+     */
+    public boolean matches(KnapsackOptimizer items){
+        return items.numItems == numItems && hashItems(items) == itemsHash;
+    }
+
+    /**
+     * Save the table. File format can be found in class description
+     * @param fileOutputName file name to write
+     * @throws FileNotFoundException throws error if the file cannot be written
+     */
+    public void save(String fileOutputName) throws FileNotFoundException {
+        try (FileChannel out = FileChannel.open(Paths.get(fileOutputName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            buffer.putLong(MAGIC).putLong(maxCapacity).putLong(numItems).putLong(itemsHash);
+            for (int x = 0; x <= maxCapacity; x++){
+                if (!buffer.hasRemaining()){
+                    writeFully(out, buffer);
+                }
+                buffer.putLong(optimalValue(x));
+            }
+            writeFully(out, buffer);
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Output file cannot be written.");
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()){
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Load a saved table. The values are memory-mapped, not read
+     * @param fileInputName file name to be imported
+     * @return the table
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public static KnapsackCapacityTable load(String fileInputName) throws FileNotFoundException {
+        try (FileChannel in = FileChannel.open(Paths.get(fileInputName), StandardOpenOption.READ)){
+            ByteBuffer header = ByteBuffer.allocate(8 * HEADER_LONGS);
+            while (header.hasRemaining() && in.read(header) != -1){
+            }
+            header.flip();
+            if (header.remaining() < 8 * HEADER_LONGS || header.getLong() != MAGIC){
+                throw new IllegalArgumentException("Error: file is not a saved knapsack table.");
+            }
+            int maxCapacity = (int) header.getLong();
+            KnapsackCapacityTable table = new KnapsackCapacityTable(maxCapacity, (int) header.getLong(), header.getLong());
+            long numValues = maxCapacity + 1L;
+            if (in.size() != 8 * (HEADER_LONGS + numValues)){
+                throw new IllegalArgumentException("Error: knapsack table file is truncated.");
+            }
+            int numWindows = (int) ((numValues + (1L << WINDOW_BITS) - 1) >>> WINDOW_BITS);
+            table.windows = new LongBuffer[numWindows];
+            for (int w = 0; w < numWindows; w++){
+                long first = (long) w << WINDOW_BITS;
+                long count = Math.min(1L << WINDOW_BITS, numValues - first);
+                table.windows[w] = in.map(FileChannel.MapMode.READ_ONLY, 8 * (HEADER_LONGS + first), 8 * count).asLongBuffer();
+            }
+            return table;
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+    }
+
+    public int getMaxCapacity(){
+        return maxCapacity;
+    }
+
+    public static void main(String[] args) throws IOException {
+        KnapsackOptimizer items = new KnapsackOptimizer("data/knapsack_big.txt");
+        int numQueries = 1000000;
+        int[] capacities = new int[numQueries]; //budgets of many tenants
+        Random random = new Random(1);
+        for (int i = 0; i < numQueries; i++){
+            capacities[i] = random.nextInt(items.knapsackSize + 1);
+        }
+        capacities[0] = items.knapsackSize; //correct answer for the full knapsack_big.txt size is 4243395
+
+        long start = System.nanoTime();
+        KnapsackCapacityTable table = build(items, capacities);
+        double buildMillis = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        long[] values = table.optimalValues(capacities);
+        double queryMillis = (System.nanoTime() - start) / 1e6;
+        System.out.println("One pass up to size " + table.getMaxCapacity() + " in " + buildMillis + " ms, "
+                + numQueries + " queries in " + queryMillis + " ms, value at size " + capacities[0] + ": " + values[0]);
+
+        Path file = Files.createTempFile("knapsack", ".table");
+        try {
+            table.save(file.toString());
+            start = System.nanoTime();
+            KnapsackCapacityTable loaded = load(file.toString());
+            long[] loadedValues = loaded.optimalValues(capacities);
+            double loadMillis = (System.nanoTime() - start) / 1e6;
+            for (int i = 0; i < numQueries; i++){
+                if (loadedValues[i] != values[i]){
+                    throw new IllegalStateException("Error: loaded table disagrees at size " + capacities[i] + ".");
+                }
+            }
+            System.out.println("Loaded table answered the same " + numQueries + " queries in " + loadMillis
+                    + " ms, matches items: " + loaded.matches(items));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
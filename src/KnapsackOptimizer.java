@@ -1,6 +1,7 @@
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Scanner;
 
@@ -24,6 +25,11 @@ import java.util.Scanner;
  *              You can assume that all numbers are positive.
  *              You should assume that item weights and the knapsack capacity are integers.
  *
+ *              An item line may have an optional third column, the number of copies of the item that can be taken:
+ *              "[value] [weight] [count]". A missing count means 1 (0/1 knapsack) and -1 means unlimited copies.
+ *              The single row engine (runFastOptimization, computeValueRow) handles counts in O(W) per item,
+ *              whatever the count; the other engines only solve 0/1 instances and reject items with other counts.
+ *
  *              In the box below, type in the value of the optimal solution.
  *
  *              ADVICE: If you're not getting the correct answer, try debugging your algorithm using some small test cases.
@@ -34,13 +40,30 @@ import java.util.Scanner;
  **/
 
 public class KnapsackOptimizer {
+    public static final int UNBOUNDED = -1; //count of an item with unlimited copies
+    private static final int DIRECT_RECONSTRUCTION_CELLS = 1 << 20; //subproblems up to this many cells keep a decision bit per cell
+    private static final int FRONTIER_POINT_COST = 4; //a frontier point costs about as much as 4 cells of the dense row
+    private static final int FRONTIER_TRIAL_SHARE = 16; //an uncertain frontier run may use 1/16 of the dense work
+
+    /**
+     * Engines that can compute the optimal value
+     */
+    public enum Engine {
+        DENSE, //single row over every knapsack size, work n*W
+        PARETO_FRONTIER //Pareto frontier of (weight, value) points, work independent of W
+    }
 
     int knapsackSize;
     int numItems;
     int[] value;
     int[] weight;
-    int[][] solutionMatrix;
-    int[][] fastSolutionMatrix;
+    int[] count; //copies of each item, UNBOUNDED for unlimited, null if every item has exactly one copy
+    long[][] solutionMatrix;
+    long[] fastSolutionRow; //x_th value is the optimal total value with knapsack size x over the items seen so far
+    Engine chosenEngine;
+    long chosenEngineValue;
+    long denseWork; //cells the dense engine would update
+    long frontierWorkBound; //upper bound of the points the frontier engine would produce
 
     /**
      * Construct the optimizer using external txt file. File format can be founded in class description
@@ -60,22 +83,95 @@ public class KnapsackOptimizer {
         numItems = Integer.parseInt(info[1]);
         value = new int[numItems];
         weight = new int[numItems];
+        int[] counts = new int[numItems];
+        boolean zeroOne = true;
         int i = 0;
         while(fileScanner.hasNextLine()){
             String[] valueAndWeight = fileScanner.nextLine().split(" ");
             value[i] = Integer.parseInt(valueAndWeight[0]);
             weight[i] = Integer.parseInt(valueAndWeight[1]);
+            counts[i] = (valueAndWeight.length > 2) ? Integer.parseInt(valueAndWeight[2]) : 1;
+            zeroOne &= counts[i] == 1;
             i++;
         }
-        //solutionMatrix = new int[numItems+1][knapsackSize+1];
-        fastSolutionMatrix = new int[2][knapsackSize+1];
+        if (!zeroOne){
+            setCounts(counts);
+        }
+    }
+
+    /**
+     * Construct the optimizer from item arrays
+     * @param knapsackSize the knapsack size
+     * @param value value of each item, used directly and not copied
+     * @param weight weight of each item, used directly and not copied
+     */
+    public KnapsackOptimizer(int knapsackSize, int[] value, int[] weight){
+        if (value.length != weight.length){
+            throw new IllegalArgumentException("Error: value and weight arrays must have the same length.");
+        }
+        this.knapsackSize = knapsackSize;
+        this.numItems = value.length;
+        this.value = value;
+        this.weight = weight;
+    }
+
+    /**
+     * Construct the optimizer from item arrays, with a number of copies for each item
+     * @param knapsackSize the knapsack size
+     * @param value value of each item, used directly and not copied
+     * @param weight weight of each item, used directly and not copied
+     * @param count copies of each item, UNBOUNDED for unlimited copies, used directly and not copied
+     */
+    public KnapsackOptimizer(int knapsackSize, int[] value, int[] weight, int[] count){
+        this(knapsackSize, value, weight);
+        if (count.length != numItems){
+            throw new IllegalArgumentException("Error: value and count arrays must have the same length.");
+        }
+        setCounts(count);
+    }
+
+    private void setCounts(int[] count){
+        for (int i = 0; i < numItems; i++){
+            if (count[i] < UNBOUNDED){
+                throw new IllegalArgumentException("Error: item " + (i + 1) + " has count " + count[i] + ", must be -1 or more.");
+            }
+            if (weight[i] < 0){
+                throw new IllegalArgumentException("Error: item " + (i + 1) + " has negative weight " + weight[i] + ".");
+            }
+            if (weight[i] == 0 && count[i] == UNBOUNDED && value[i] > 0){
+                throw new IllegalArgumentException("Error: item " + (i + 1) + " has weight 0 and unlimited copies, "
+                        + "the optimal value is unbounded.");
+            }
+        }
+        this.count = count;
+    }
+
+    /**
+     * Check that every item has exactly one copy, for the engines that only solve 0/1 instances
+     * @return this optimizer
+     */
+    KnapsackOptimizer requireZeroOne(){
+        if (count != null){
+            for (int i = 0; i < numItems; i++){
+                if (count[i] != 1){
+                    throw new IllegalArgumentException("Error: item " + (i + 1) + " has count " + count[i]
+                            + ", this engine only solves 0/1 knapsack.");
+                }
+            }
+        }
+        return this;
     }
 
     /**
      * Implementing a dynamic programming algorithm to find the optimal solution.
-     * A 2D array is used to store the local optimal result
+     * A 2D array is used to store the local optimal result, so it only fits small instances
      */
     public void runOptimization(){
+        requireZeroOne();
+        if (((long) numItems + 1) * ((long) knapsackSize + 1) > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Error: the 2D table is too large, use runFastOptimization instead.");
+        }
+        solutionMatrix = new long[numItems+1][knapsackSize+1];
         for (int i = 1; i <= numItems; i++){
             for (int x = 0; x <= knapsackSize; x++){
                 if (weight[i-1] > x) {
@@ -91,42 +187,257 @@ public class KnapsackOptimizer {
 
     /**
      * Implementing a faster dynamic programming algorithm to find the optimal solution.
-     * A 2 by n array is used to store the local optimal result. n is the number of items in optimizer.
+     * A single row of length (knapsack size + 1) is updated in place for every item. Going from the largest size
+     * down, row[x - weight] still holds the value without the current item when row[x] is updated, so no second
+     * row and no copy are needed. Sizes below the item weight cannot take the item and are not visited.
+     * Items with several copies are added with addCopies, also in place and in O(knapsack size).
      */
     public void runFastOptimization(){
-        int i = 1;
-        while (i <= numItems){
-            for (int x = 0; x <= knapsackSize; x++){
-                int[] temp = fastSolutionMatrix[0];
-                if (weight[i-1] > x) {
-                    fastSolutionMatrix[1][x] = fastSolutionMatrix[0][x];
+        long[] row = new long[knapsackSize+1];
+        fillRow(row, 0, numItems, knapsackSize);
+        fastSolutionRow = row;
+    }
+
+    /**
+     * Run the single row algorithm over every item for knapsack sizes 0..capacity, which may differ from the
+     * knapsack size of the instance
+     * @param capacity the largest knapsack size
+     * @return x_th value is the optimal total value with knapsack size x
+     */
+    public long[] computeValueRow(int capacity){
+        if (capacity < 0 || capacity > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("Error: capacity " + capacity + " is out of range.");
+        }
+        long[] row = new long[capacity+1];
+        fillRow(row, 0, numItems, capacity);
+        return row;
+    }
+
+    /**
+     * Run the single row algorithm over items from (inclusive) to to (exclusive) and knapsack sizes 0..capacity
+     * @param row the row, whose first capacity+1 values are overwritten
+     */
+    private void fillRow(long[] row, int from, int to, int capacity){
+        Arrays.fill(row, 0, capacity + 1, 0);
+        long[] buffer = null;
+        for (int i = from; i < to; i++){
+            int w = weight[i];
+            long v = value[i];
+            if (count == null || count[i] == 1){
+                for (int x = capacity; x >= w; x--){
+                    row[x] = Math.max(row[x], row[x-w] + v);
                 }
-                else{
-                    fastSolutionMatrix[1][x] = Math.max(fastSolutionMatrix[0][x], fastSolutionMatrix[0][x-weight[i-1]]+value[i-1]);
+            }
+            else{
+                if (buffer == null){
+                    buffer = new long[2 * (capacity + 1)];
                 }
-                fastSolutionMatrix[0] = temp;
+                addCopies(row, capacity, w, v, count[i], buffer);
             }
-            i++;
-            for (int j = 0; j < fastSolutionMatrix[1].length; j ++){
-                fastSolutionMatrix[0][j] = fastSolutionMatrix[1][j];
+        }
+    }
+
+    /**
+     * Add an item with several copies to the row in place.
+     * Copies of weight 0 always fit, so all of them are added to every size.
+     * Unlimited copies, or as many as could ever fit, take one forward pass: going from the smallest size up,
+     * row[x - weight] already holds the value with any number of copies, so row[x] may take one more.
+     * Otherwise the sizes are split by residue modulo the weight. Along a residue class x_k = r + k*w,
+     * new[x_k] = max over k-c <= j <= k of old[x_j] + (k-j)*v = k*v + max(old[x_j] - j*v), a maximum over a sliding
+     * window of c+1 positions, kept in a monotone deque. Every size enters and leaves the deque once, so the item
+     * costs O(knapsack size) whatever its count.
+     * @param buffer scratch space of 2*(capacity+1) longs, for the old values of a residue class and the deque
+     */
+    private static void addCopies(long[] row, int capacity, int w, long v, int c, long[] buffer){
+        if (c == 0 || w > capacity){
+            return;
+        }
+        if (w == 0){ //unlimited copies of weight 0 are only allowed with value 0
+            if (c != UNBOUNDED && v > 0){
+                for (int x = 0; x <= capacity; x++){
+                    row[x] += c * v;
+                }
             }
+            return;
         }
+        if (c == UNBOUNDED || (long) c * w >= capacity){
+            for (int x = w; x <= capacity; x++){
+                row[x] = Math.max(row[x], row[x-w] + v);
+            }
+            return;
+        }
+        int dequeStart = capacity + 1; //the deque holds positions j of the residue class, in buffer[dequeStart..]
+        for (int r = 0; r < w; r++){
+            int positions = (capacity - r) / w + 1;
+            int head = dequeStart, tail = dequeStart;
+            for (int k = 0, x = r; k < positions; k++, x += w){
+                long key = row[x] - k * v; //old[x_k] - k*v
+                buffer[k] = key;
+                while (tail > head && buffer[(int) buffer[tail-1]] <= key){
+                    tail--;
+                }
+                buffer[tail++] = k;
+                if (buffer[head] < k - c){
+                    head++;
+                }
+                row[x] = buffer[(int) buffer[head]] + k * v;
+            }
+        }
+    }
+
+    /**
+     * Find the items of an optimal solution in O(knapsack size) memory, divide and conquer style (Hirschberg).
+     * The items are split in half. The first half is solved forward and the second half separately, each in one row,
+     * and the knapsack size c maximizing first[c] + second[size - c] is how the optimal solution splits the size
+     * between the halves. Both halves are then solved the same way with their own sizes. Over all levels, the work
+     * is about twice that of runFastOptimization. Small subproblems keep one decision bit per cell instead
+     * @return the items (numbered from 1) in the optimal solution, in increasing order
+     */
+    public ArrayList<Integer> reconstructOptimalItems(){
+        requireZeroOne();
+        long[] first = new long[knapsackSize+1];
+        long[] second = new long[knapsackSize+1];
+        ArrayList<Integer> items = new ArrayList<>();
+        reconstruct(0, numItems, knapsackSize, first, second, items);
+        return items;
+    }
+
+    /**
+     * Add to items an optimal choice among items from (inclusive) to to (exclusive) for a knapsack size
+     * @param first scratch row, at least capacity+1 long
+     * @param second scratch row, at least capacity+1 long
+     */
+    private void reconstruct(int from, int to, int capacity, long[] first, long[] second, ArrayList<Integer> items){
+        if (from >= to){
+            return;
+        }
+        if ((long) (to - from) * (capacity + 1) <= DIRECT_RECONSTRUCTION_CELLS){
+            reconstructDirect(from, to, capacity, first, items);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        fillRow(first, from, mid, capacity);
+        fillRow(second, mid, to, capacity);
+        int split = 0;
+        long best = -1;
+        for (int c = 0; c <= capacity; c++){
+            long total = first[c] + second[capacity - c];
+            if (total > best){
+                best = total;
+                split = c;
+            }
+        }
+        reconstruct(from, mid, split, first, second, items);
+        reconstruct(mid, to, capacity - split, first, second, items);
+    }
+
+    /**
+     * Solve a small subproblem with the single row, recording in one bit per (item, size) whether the item was
+     * taken, then walk the bits backward from the last item
+     */
+    private void reconstructDirect(int from, int to, int capacity, long[] row, ArrayList<Integer> items){
+        int width = capacity + 1;
+        long[] taken = new long[(int) (((long) (to - from) * width + 63) >>> 6)];
+        Arrays.fill(row, 0, width, 0);
+        for (int i = from; i < to; i++){
+            int w = weight[i];
+            long v = value[i];
+            long base = (long) (i - from) * width;
+            for (int x = capacity; x >= w; x--){
+                if (row[x-w] + v > row[x]){
+                    row[x] = row[x-w] + v;
+                    long bit = base + x;
+                    taken[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+        int start = items.size();
+        int x = capacity;
+        for (int i = to - 1; i >= from; i--){
+            long bit = (long) (i - from) * width + x;
+            if ((taken[(int) (bit >>> 6)] & (1L << bit)) != 0){
+                items.add(i + 1);
+                x -= weight[i];
+            }
+        }
+        for (int a = start, b = items.size() - 1; a < b; a++, b--){ //the walk is backward, keep items increasing
+            items.set(a, items.set(b, items.get(a)));
+        }
+    }
+
+    /**
+     * Compute the optimal value with the engine expected to be faster, and remember which one was chosen.
+     * The dense row costs one cell per item and knapsack size. The frontier has a cheap upper bound,
+     * sum of min(2^i, W+1, V_i+1). If that bound is clearly below the dense work the frontier engine runs.
+     * Otherwise the bound may still be far too pessimistic, so the frontier engine gets a short trial with a
+     * small share of the dense work as budget, and the dense engine only runs if the trial does not finish.
+     * Instances with item counts always use the dense row
+     * @return the engine that produced the value
+     */
+    public Engine runAutoOptimization(){
+        denseWork = 0;
+        for (int i = 0; i < numItems; i++){
+            denseWork += Math.max(0, knapsackSize - weight[i] + 1);
+        }
+        if (count != null){ //only the dense row handles items with several copies
+            frontierWorkBound = Long.MAX_VALUE;
+            runFastOptimization();
+            chosenEngine = Engine.DENSE;
+            chosenEngineValue = getFastOptimalValueSum();
+            return chosenEngine;
+        }
+        ParetoKnapsackOptimizer frontier = new ParetoKnapsackOptimizer(this);
+        frontierWorkBound = frontier.workBound();
+        boolean frontierDone;
+        if (frontierWorkBound <= denseWork / FRONTIER_POINT_COST){
+            frontier.runOptimization();
+            frontierDone = true;
+        }
+        else{
+            frontierDone = frontier.runOptimization(denseWork / FRONTIER_POINT_COST / FRONTIER_TRIAL_SHARE);
+        }
+        if (frontierDone){
+            chosenEngine = Engine.PARETO_FRONTIER;
+            chosenEngineValue = frontier.getOptimalValueSum();
+        }
+        else{
+            runFastOptimization();
+            chosenEngine = Engine.DENSE;
+            chosenEngineValue = getFastOptimalValueSum();
+        }
+        return chosenEngine;
+    }
+
+    /**
+     * Get the final optimal total value found by runAutoOptimization
+     * @return final optimal total value
+     */
+    public long getAutoOptimalValueSum(){
+        return chosenEngineValue;
+    }
+
+    /**
+     * Helper print method for the engine choice of runAutoOptimization
+     */
+    public void printEngineChoice(){
+        System.out.println("Engine " + chosenEngine + " chosen: dense work " + denseWork + " cells, frontier bound "
+                + frontierWorkBound + " points, optimal value " + chosenEngineValue);
     }
 
     /**
      * Get the final optimal total value of optimal solution for 2D array algorithm
      * @return final optimal total value
      */
-    public int getOptimalValueSum(){
+    public long getOptimalValueSum(){
         return solutionMatrix[numItems][knapsackSize];
     }
 
     /**
-     * Get the final optimal total value of optimal solution for 2*n array algorithm
+     * Get the final optimal total value of optimal solution for single row algorithm
      * @return final optimal total value
      */
-    public int getFastOptimalValueSum(){
-        return fastSolutionMatrix[1][knapsackSize];
+    public long getFastOptimalValueSum(){
+        return fastSolutionRow[knapsackSize];
     }
 
     /**
@@ -157,10 +468,45 @@ public class KnapsackOptimizer {
         //correct answer of knapsack_big.txt is 4243395
         KnapsackOptimizer tester = new KnapsackOptimizer("data/knapsack_big.txt");
 
-        //tester.runOptimization();
+        //tester.runOptimization(); //only for small instances
         //System.out.println("Total value of optimal solution is: " + tester.getOptimalValueSum());
 
         tester.runFastOptimization();
         System.out.println("Total value of optimal solution is: " + tester.getFastOptimalValueSum());
+
+        ArrayList<Integer> items = tester.reconstructOptimalItems();
+        long totalValue = 0, totalWeight = 0;
+        for (int item : items){
+            totalValue += tester.value[item-1];
+            totalWeight += tester.weight[item-1];
+        }
+        System.out.println("Optimal solution takes " + items.size() + " items of total value " + totalValue
+                + " and total weight " + totalWeight);
+        //correct answer of knapsack-bounded-test.txt is 42: two copies of item 1, item 3 and three copies of item 4
+        KnapsackOptimizer bounded = new KnapsackOptimizer("data/knapsack-bounded-test.txt");
+        bounded.runFastOptimization();
+        System.out.println("Total value of bounded optimal solution is: " + bounded.getFastOptimalValueSum());
+
+        //knapsack1.txt with 500 copies of every item, against expanding the copies into 50,000 0/1 items
+        KnapsackOptimizer base = new KnapsackOptimizer("data/knapsack1.txt");
+        int copies = 500;
+        int[] counts = new int[base.numItems];
+        Arrays.fill(counts, copies);
+        int[] expandedValue = new int[base.numItems * copies];
+        int[] expandedWeight = new int[base.numItems * copies];
+        for (int i = 0; i < expandedValue.length; i++){
+            expandedValue[i] = base.value[i / copies];
+            expandedWeight[i] = base.weight[i / copies];
+        }
+        long start = System.nanoTime();
+        KnapsackOptimizer withCounts = new KnapsackOptimizer(base.knapsackSize, base.value, base.weight, counts);
+        withCounts.runFastOptimization();
+        double countMillis = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        KnapsackOptimizer expanded = new KnapsackOptimizer(base.knapsackSize, expandedValue, expandedWeight);
+        expanded.runFastOptimization();
+        double expandedMillis = (System.nanoTime() - start) / 1e6;
+        System.out.println("500 copies of each item: " + withCounts.getFastOptimalValueSum() + " in " + countMillis
+                + " ms with counts, " + expanded.getFastOptimalValueSum() + " in " + expandedMillis + " ms expanded");
     }
 }
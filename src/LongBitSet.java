@@ -0,0 +1,84 @@
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class is a fixed-size bit set indexed by long, one bit per index packed into
+ *              a long[] array. Unlike java.util.BitSet it can hold more than 2^31 bits, which is needed to mark
+ *              the chosen vertices of paths with billions of vertices.
+ **/
+public class LongBitSet {
+    private long numBits;
+    private long[] words; //bit i is bit (i & 63) of words[i >>> 6]
+
+    /**
+     * Construct an empty bit set
+     * @param numBits the number of bits, indexed from 0 to numBits-1
+     */
+    public LongBitSet(long numBits){
+        if (numBits < 0 || (numBits + 63) >>> 6 > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("Error: cannot hold " + numBits + " bits.");
+        }
+        this.numBits = numBits;
+        this.words = new long[(int) ((numBits + 63) >>> 6)];
+    }
+
+    public void set(long index){
+        checkIndex(index);
+        words[(int) (index >>> 6)] |= 1L << index;
+    }
+
+    public void clear(long index){
+        checkIndex(index);
+        words[(int) (index >>> 6)] &= ~(1L << index);
+    }
+
+    public boolean get(long index){
+        checkIndex(index);
+        return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * Count the bits that are set
+     * @return the number of set bits
+     */
+    public long cardinality(){
+        long count = 0;
+        for (long word : words){
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Find the next set bit
+     * @param from the first index to look at
+     * @return the index of the first set bit at or after from, -1 if there is none
+     */
+    public long nextSetBit(long from){
+        if (from < 0){
+            from = 0;
+        }
+        if (from >= numBits){
+            return -1;
+        }
+        int w = (int) (from >>> 6);
+        long word = words[w] & (-1L << from);
+        while (true){
+            if (word != 0){
+                return ((long) w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length){
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    public long size(){
+        return numBits;
+    }
+
+    private void checkIndex(long index){
+        if (index < 0 || index >= numBits){
+            throw new IndexOutOfBoundsException("Error: index " + index + " is out of range 0.." + (numBits - 1) + ".");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+import java.util.Arrays;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class is a bounded cache from non-negative long keys to long values.
+ *              Keys and values are kept in two primitive arrays of fixed capacity. A key may only sit in the
+ *              4 slots that follow its hash slot, so lookups touch one or two cache lines. Every entry carries
+ *              the cost of recomputing it. When all 4 slots are taken, the cheapest of them is overwritten, or the
+ *              new entry is dropped if it is cheaper still, so memory never grows past the capacity and the
+ *              entries most expensive to lose stay. A key of -1 marks an empty slot.
+ **/
+public class LongLongCache {
+    private static final long EMPTY = -1;
+    private static final int WAYS = 4; //slots a key can be stored in
+
+    private int mask; //capacity - 1, capacity is a power of two
+    private long[] keys;
+    private long[] values;
+    private int[] costs;
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor of LongLongCache
+     * @param maxEntries the largest number of entries, rounded up to a power of two
+     */
+    public LongLongCache(int maxEntries){
+        if (maxEntries < 1 || maxEntries > (1 << 30)){
+            throw new IllegalArgumentException("Error: cache must hold 1 to 2^30 entries.");
+        }
+        int capacity = Math.max(WAYS, Integer.highestOneBit(maxEntries * 2 - 1));
+        this.mask = capacity - 1;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.costs = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private int slot(long key){
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Look up a key
+     * @param key the key, must not be negative
+     * @param missing the value to return if the key is not cached
+     * @return the cached value, or missing
+     */
+    public long get(long key, long missing){
+        int s = slot(key);
+        for (int way = 0; way < WAYS; way++, s = (s + 1) & mask){
+            if (keys[s] == key){
+                hits++;
+                return values[s];
+            }
+        }
+        misses++;
+        return missing;
+    }
+
+    /**
+     * Cache a value, evicting the cheapest entry if every slot of the key is taken
+     * @param key the key, must not be negative
+     * @param value the value
+     * @param cost the cost of recomputing the value, e.g. the work spent on it
+     */
+    public void put(long key, long value, int cost){
+        if (key < 0){
+            throw new IllegalArgumentException("Error: keys must not be negative.");
+        }
+        int free = -1;
+        int cheapest = -1;
+        for (int way = 0, s = slot(key); way < WAYS; way++, s = (s + 1) & mask){
+            if (keys[s] == key){
+                values[s] = value;
+                costs[s] = Math.max(costs[s], cost);
+                return;
+            }
+            if (keys[s] == EMPTY){
+                if (free == -1){
+                    free = s;
+                }
+            }
+            else if (cheapest == -1 || costs[s] < costs[cheapest]){
+                cheapest = s;
+            }
+        }
+        if (free == -1){
+            evictions++;
+            if (costs[cheapest] > cost){ //the new entry is the cheapest one to lose
+                return;
+            }
+            free = cheapest;
+        }
+        else{
+            size++;
+        }
+        keys[free] = key;
+        values[free] = value;
+        costs[free] = cost;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public int capacity(){
+        return mask + 1;
+    }
+
+    public long getHits(){
+        return hits;
+    }
+
+    public long getMisses(){
+        return misses;
+    }
+
+    public long getEvictions(){
+        return evictions;
+    }
+
+    /**
+     * Get the share of lookups that found their key
+     * @return hits / (hits + misses), 0 before any lookup
+     */
+    public double hitRate(){
+        long lookups = hits + misses;
+        return (lookups == 0) ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.Random;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class compares the running time of the minimum spanning tree algorithms
+ *              in MinSpanningTreeFinder on random connected graphs of increasing density.
+ *
+ *              Prim's algorithm touches every edge once but pays a heap operation per improved vertex,
+ *              Kruskal's algorithm sorts every edge, and Filter-Kruskal only sorts the edges that survive filtering.
+ *              In the measured runs Kruskal is fastest at 2 and 8 edges per vertex and Filter-Kruskal at 32 and 128,
+ *              where filtering saves sorting most edges. Prim's heap operations keep it behind both at every density.
+ *              Parallel Boruvka scans all edges in every round but spreads each scan over all cores.
+ **/
+public class MinSpanningTreeBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * Generate a random connected graph. Vertex i (i > 1) is first connected to a random earlier vertex,
+     * then the remaining edges connect random pairs of vertices
+     * @param numVertices the number of vertices
+     * @param numEdges the number of edges, at least numVertices-1
+     * @param seed seed of the random generator
+     * @return the MST finder of the generated graph
+     */
+    public static MinSpanningTreeFinder randomGraph(int numVertices, int numEdges, long seed){
+        Random random = new Random(seed);
+        int[] edgeStart = new int[numEdges];
+        int[] edgeEnd = new int[numEdges];
+        int[] edgeLength = new int[numEdges];
+        for (int i = 0; i < numEdges; i++){
+            if (i < numVertices - 1){
+                edgeStart[i] = i + 2;
+                edgeEnd[i] = 1 + random.nextInt(i + 1);
+            }
+            else{
+                edgeStart[i] = 1 + random.nextInt(numVertices);
+                edgeEnd[i] = 1 + random.nextInt(numVertices);
+            }
+            edgeLength[i] = random.nextInt(2000001) - 1000000;
+        }
+        return new MinSpanningTreeFinder(numVertices, edgeStart, edgeEnd, edgeLength);
+    }
+
+    /**
+     * Time one algorithm on one graph
+     * @return average running time in milliseconds
+     */
+    private static double time(MinSpanningTreeFinder finder, MinSpanningTreeFinder.Algorithm algorithm){
+        for (int i = 0; i < WARMUP_ROUNDS; i++){
+            finder.costOfMST(algorithm);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++){
+            finder.costOfMST(algorithm);
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+    }
+
+    public static void main(String[] args) {
+        int numVertices = 20000;
+        int[] edgesPerVertex = {2, 8, 32, 128};
+
+        System.out.printf("%10s %10s %12s %12s %16s %14s %18s%n",
+                "vertices", "edges", "Prim(ms)", "Kruskal(ms)", "FilterKr.(ms)", "Boruvka(ms)", "winner");
+        for (int density : edgesPerVertex){
+            MinSpanningTreeFinder finder = randomGraph(numVertices, numVertices * density, density);
+            long cost = finder.costOfMST(MinSpanningTreeFinder.Algorithm.PRIM);
+            if (cost != finder.costOfMST(MinSpanningTreeFinder.Algorithm.KRUSKAL)
+                    || cost != finder.costOfMST(MinSpanningTreeFinder.Algorithm.FILTER_KRUSKAL)
+                    || cost != finder.costOfMST(MinSpanningTreeFinder.Algorithm.PARALLEL_BORUVKA)){
+                throw new IllegalStateException("Error: MST algorithms disagree on the cost.");
+            }
+
+            double[] millis = new double[4];
+            MinSpanningTreeFinder.Algorithm[] algorithms = MinSpanningTreeFinder.Algorithm.values();
+            int winner = 0;
+            for (int a = 0; a < algorithms.length; a++){
+                millis[a] = time(finder, algorithms[a]);
+                if (millis[a] < millis[winner]){
+                    winner = a;
+                }
+            }
+            System.out.printf("%10d %10d %12.2f %12.2f %16.2f %14.2f %18s%n", numVertices, numVertices * density,
+                    millis[0], millis[1], millis[2], millis[3], algorithms[winner]);
+        }
+    }
+}
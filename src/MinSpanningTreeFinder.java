@@ -1,9 +1,9 @@
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
@@ -24,15 +24,33 @@ import java.util.Scanner;
  *              You should report the overall cost of a minimum spanning tree --- an integer,
  *              which may or may not be negative.
  *
- *              Run time of this algorithm is O(m*n), where m is the number of edges and n is the number of vertices.
- *              Fast O(m*log(n)) can be achieved by implementing heap data structure in min-cost edge search at each iteration.
+ *              Run time of the naive algorithm is O(m*n), where m is the number of edges and n is the number of vertices.
+ *              The heap-based algorithm keeps the cheapest crossing edge of every vertex in an indexed min-heap
+ *              over primitive adjacency arrays, which gives O(m*log(n)).
  *
  * @author : Zitao He
  * @date : 2021-01-31 14:36
  **/
 public class MinSpanningTreeFinder {
-    private HashMap<Integer, ArrayList<Integer>> vertices; //Graph representation. List is the adjacency list
-    private ArrayList<GraphEdge> edges; //Edges in this graph
+    /**
+     * Algorithms that can be chosen to find the minimum spanning tree
+     */
+    public enum Algorithm {
+        PRIM, //heap-based Prim's algorithm, suited to dense graphs
+        KRUSKAL, //sort all edges and merge components with UnionFind, suited to sparse graphs
+        FILTER_KRUSKAL, //Kruskal that partitions around a pivot and filters intra-component edges before sorting
+        PARALLEL_BORUVKA //Boruvka's algorithm with every round running in parallel on a ForkJoinPool
+    }
+
+    private static final int FILTER_KRUSKAL_THRESHOLD = 1024; //below this number of edges, Filter-Kruskal sorts directly
+    private static final int BORUVKA_GRAIN = 8192; //number of edges or vertices one task of a Boruvka round handles
+
+    private EdgeStore edges; //Edges in this graph, each undirected edge stored once
+    private int numVertices; //Vertices are numbered from 1 to numVertices
+    private int numEdges;
+    private int[] adjacencyStart; //neighbours of vertex v are stored from adjacencyStart[v] to adjacencyStart[v+1]-1
+    private int[] adjacencyTarget; //the neighbour vertex of each adjacency entry
+    private int[] adjacencyEdge; //the undirected edge index of each adjacency entry
 
     /**
      * Constructor using file input name
@@ -40,63 +58,353 @@ public class MinSpanningTreeFinder {
      * @throws FileNotFoundException throws exception when file not found
      */
     public MinSpanningTreeFinder(String fileInputName) throws FileNotFoundException {
-        Scanner fileScanner;
-        vertices = new HashMap<>();
-        edges = new ArrayList<>();
-        try{
-            fileScanner = new Scanner(new File(fileInputName));
+        EdgeListLoader loader = new EdgeListLoader(fileInputName); //first line is [number_of_nodes] [number_of_edges]
+        numVertices = loader.getNumVertices();
+        edges = loader.getEdgeStore();
+        numEdges = edges.size();
+        buildAdjacencyArrays();
+    }
+
+    /**
+     * Constructor using edge arrays. The i_th undirected edge connects edgeStart[i] and edgeEnd[i]
+     * with cost edgeLength[i]. The arrays are used directly, not copied
+     * @param numVertices the number of vertices, which are numbered from 1 to numVertices
+     * @param edgeStart one end of each edge
+     * @param edgeEnd the other end of each edge
+     * @param edgeLength the cost of each edge
+     */
+    public MinSpanningTreeFinder(int numVertices, int[] edgeStart, int[] edgeEnd, int[] edgeLength){
+        this.numVertices = numVertices;
+        this.edges = new EdgeStore(edgeStart, edgeEnd, edgeLength);
+        this.numEdges = edges.size();
+        buildAdjacencyArrays();
+    }
+
+    /**
+     * Build the primitive adjacency arrays (compressed sparse rows) from the undirected edges.
+     * Every undirected edge appears once in the adjacency range of each of its two vertices.
+     */
+    private void buildAdjacencyArrays(){
+        adjacencyStart = new int[numVertices + 2];
+        adjacencyTarget = new int[2 * numEdges];
+        adjacencyEdge = new int[2 * numEdges];
+        for (int i = 0; i < numEdges; i++){ //count the degree of each vertex
+            adjacencyStart[edges.getStart(i) + 1]++;
+            adjacencyStart[edges.getEnd(i) + 1]++;
+        }
+        for (int v = 1; v < adjacencyStart.length; v++){ //prefix sums turn degrees into range starts
+            adjacencyStart[v] += adjacencyStart[v - 1];
+        }
+        int[] next = new int[numVertices + 1];
+        System.arraycopy(adjacencyStart, 0, next, 0, numVertices + 1);
+        for (int i = 0; i < numEdges; i++){
+            adjacencyTarget[next[edges.getStart(i)]] = edges.getEnd(i);
+            adjacencyEdge[next[edges.getStart(i)]++] = i;
+            adjacencyTarget[next[edges.getEnd(i)]] = edges.getStart(i);
+            adjacencyEdge[next[edges.getEnd(i)]++] = i;
+        }
+    }
+
+    /**
+     * Run Prim's algorithm with an indexed min-heap. Every vertex outside the tree is keyed by its cheapest
+     * edge into the tree, and the key is decreased whenever a newly added vertex offers a cheaper edge.
+     * If the graph is not connected, a minimum spanning forest is returned.
+     * Run time is O(m*log(n)).
+     * @return the edges of the minimum spanning tree. Each edge starts at the vertex that was already in the tree
+     */
+    public ArrayList<GraphEdge> findMSTPrim(){
+        ArrayList<GraphEdge> minSpanningTree = new ArrayList<>();
+        boolean[] inTree = new boolean[numVertices + 1];
+        int[] cheapestEdge = new int[numVertices + 1]; //index of the cheapest edge connecting each vertex to the tree
+        IndexedMinHeap crossingEdges = new IndexedMinHeap(numVertices + 1);
+
+        for (int root = 1; root <= numVertices; root++){ //restart from every vertex not yet reached
+            if (inTree[root]){
+                continue;
+            }
+            crossingEdges.insert(root, Integer.MIN_VALUE);
+            cheapestEdge[root] = -1;
+            while (!crossingEdges.isEmpty()){
+                int v = crossingEdges.delMin();
+                inTree[v] = true;
+                int e = cheapestEdge[v];
+                if (e != -1){
+                    int treeEnd = (edges.getStart(e) == v) ? edges.getEnd(e) : edges.getStart(e);
+                    minSpanningTree.add(new GraphEdge(treeEnd, v, edges.getLength(e)));
+                }
+                for (int a = adjacencyStart[v]; a < adjacencyStart[v + 1]; a++){
+                    int u = adjacencyTarget[a];
+                    if (inTree[u]){
+                        continue;
+                    }
+                    int length = edges.getLength(adjacencyEdge[a]);
+                    if (!crossingEdges.contains(u)){
+                        crossingEdges.insert(u, length);
+                        cheapestEdge[u] = adjacencyEdge[a];
+                    }
+                    else if (length < crossingEdges.keyOf(u)){
+                        crossingEdges.decreaseKey(u, length);
+                        cheapestEdge[u] = adjacencyEdge[a];
+                    }
+                }
+            }
+        }
+        return minSpanningTree;
+    }
+
+    /**
+     * Run Kruskal's algorithm. Edges are radix sorted by cost, and an edge is added to the tree if
+     * its two vertices are not yet connected in UnionFind.
+     * Run time is O(m*alpha(n)).
+     * @return the edges of the minimum spanning tree (or forest if the graph is not connected)
+     */
+    public ArrayList<GraphEdge> findMSTKruskal(){
+        ArrayList<GraphEdge> minSpanningTree = new ArrayList<>();
+        UnionFind components = new UnionFind(numVertices);
+        int[] order = edges.sortedOrder(); //stable, so equal costs are ordered by edge index
+        for (int k = 0; k < numEdges && minSpanningTree.size() < numVertices - 1; k++){
+            addEdgeIfCrossing(order[k], components, minSpanningTree);
+        }
+        return minSpanningTree;
+    }
+
+    /**
+     * Run Filter-Kruskal. Edges are partitioned around a random pivot edge. The lighter part is solved first,
+     * then every heavier edge whose vertices are already connected is dropped before the heavier part is solved.
+     * Only the edges that survive filtering are ever sorted, so graphs with many more edges than vertices
+     * avoid most of the sorting work of Kruskal's algorithm.
+     * @return the edges of the minimum spanning tree (or forest if the graph is not connected)
+     */
+    public ArrayList<GraphEdge> findMSTFilterKruskal(){
+        ArrayList<GraphEdge> minSpanningTree = new ArrayList<>();
+        UnionFind components = new UnionFind(numVertices);
+        long[] keys = edgeSortKeys();
+        filterKruskal(keys, 0, keys.length, components, minSpanningTree, new Random(numEdges));
+        return minSpanningTree;
+    }
+
+    /**
+     * Run Boruvka's algorithm in parallel. Each round finds the cheapest outgoing edge of every component
+     * in parallel over edge ranges, then merges the components along those edges through ConcurrentUnionFind.
+     * Edges are compared by (cost, edge index), the same order Kruskal's algorithm uses, so equal costs are
+     * broken deterministically and the resulting tree is the same as the sequential one.
+     * There are at most O(log(n)) rounds, each doing O(m+n) work.
+     * @param pool the ForkJoinPool to run on
+     * @return the edges of the minimum spanning tree (or forest if the graph is not connected), ordered by edge index
+     */
+    public ArrayList<GraphEdge> findMSTBoruvka(ForkJoinPool pool){
+        ConcurrentUnionFind components = new ConcurrentUnionFind(numVertices);
+        int[] component = new int[numVertices]; //root of each vertex at the start of a round
+        AtomicLongArray cheapestKey = new AtomicLongArray(numVertices); //cheapest outgoing edge key of each root
+        boolean[] inTree = new boolean[numEdges];
+        boolean[] merged = new boolean[1];
+
+        do {
+            ParallelRange.forEach(pool, 0, numVertices, BORUVKA_GRAIN, (from, to) -> {
+                for (int v = from; v < to; v++){
+                    component[v] = components.find(v);
+                    cheapestKey.set(v, Long.MAX_VALUE);
+                }
+            });
+            ParallelRange.forEach(pool, 0, numEdges, BORUVKA_GRAIN, (from, to) -> {
+                for (int e = from; e < to; e++){
+                    int a = component[edges.getStart(e)-1]; //id in UnionFind and id for vertex is shifted by 1
+                    int b = component[edges.getEnd(e)-1];
+                    if (a != b){
+                        long key = ((long) edges.getLength(e) << 32) | e;
+                        lowerTo(cheapestKey, a, key);
+                        lowerTo(cheapestKey, b, key);
+                    }
+                }
+            });
+            merged[0] = false;
+            ParallelRange.forEach(pool, 0, numVertices, BORUVKA_GRAIN, (from, to) -> {
+                boolean mergedHere = false;
+                for (int v = from; v < to; v++){
+                    long key = cheapestKey.get(v);
+                    if (component[v] != v || key == Long.MAX_VALUE){
+                        continue;
+                    }
+                    int e = (int) key;
+                    if (components.union(edges.getStart(e)-1, edges.getEnd(e)-1)){ //only one of the two ends adds a shared edge
+                        inTree[e] = true;
+                        mergedHere = true;
+                    }
+                }
+                if (mergedHere){
+                    merged[0] = true;
+                }
+            });
+        } while (merged[0]);
+
+        ArrayList<GraphEdge> minSpanningTree = new ArrayList<>();
+        for (int e = 0; e < numEdges; e++){
+            if (inTree[e]){
+                minSpanningTree.add(edges.getEdge(e));
+            }
         }
-        catch (IOException e) {
-            throw new FileNotFoundException("Error: Input file is not found.");
+        return minSpanningTree;
+    }
+
+    /**
+     * Atomically lower the value at index i to key if key is smaller
+     */
+    private static void lowerTo(AtomicLongArray values, int i, long key){
+        long current = values.get(i);
+        while (key < current && !values.compareAndSet(i, current, key)){
+            current = values.get(i);
         }
+    }
 
-        while (fileScanner.hasNextLine()){ // add all vertices to graph
-            String[] info = fileScanner.nextLine().split(" ");
-            vertices.put(Integer.parseInt(info[0]), new ArrayList<>());
-            vertices.put(Integer.parseInt(info[1]), new ArrayList<>());
+    /**
+     * Find the minimum spanning tree using the chosen algorithm
+     * @param algorithm the algorithm to use
+     * @return the edges of the minimum spanning tree (or forest if the graph is not connected)
+     */
+    public ArrayList<GraphEdge> findMST(Algorithm algorithm){
+        switch (algorithm){
+            case KRUSKAL:
+                return findMSTKruskal();
+            case FILTER_KRUSKAL:
+                return findMSTFilterKruskal();
+            case PARALLEL_BORUVKA:
+                return findMSTBoruvka(ForkJoinPool.commonPool());
+            default:
+                return findMSTPrim();
         }
+    }
 
-        fileScanner = new Scanner(new File(fileInputName));
-        fileScanner.nextLine(); //skip first line, because the first line does not represent edge/vertex
-        while(fileScanner.hasNextLine()){
-            String[] info = fileScanner.nextLine().split(" ");
-            int edgeStart = Integer.parseInt(info[0]);
-            int edgeEnd = Integer.parseInt(info[1]);
-            int edgeLength = Integer.parseInt(info[2]);
-            GraphEdge edge = new GraphEdge(edgeStart, edgeEnd, edgeLength);
-            GraphEdge edgeDummy = new GraphEdge(edgeEnd, edgeStart, edgeLength);
+    /**
+     * Calculate the sum of costs of each edge in minimum spanning tree using the chosen algorithm
+     * @param algorithm the algorithm to use
+     * @return the sum of costs of each edge in minimum spanning tree
+     */
+    public long costOfMST(Algorithm algorithm){
+        long costSum = 0;
+        for (GraphEdge edge : findMST(algorithm)){
+            costSum += edge.getLength();
+        }
+        return costSum;
+    }
 
-            this.edges.add(edge);
-            this.edges.add(edgeDummy);
+    /**
+     * Encode every edge as one long: the cost in the high 32 bits and the edge index in the low 32 bits.
+     * Sorting the keys as primitives orders edges by cost, and ties are broken by edge index.
+     * @return sort keys of all edges
+     */
+    private long[] edgeSortKeys(){
+        long[] keys = new long[numEdges];
+        for (int i = 0; i < numEdges; i++){
+            keys[i] = ((long) edges.getLength(i) << 32) | i;
+        }
+        return keys;
+    }
 
-            vertices.get(edgeStart).add(edgeEnd);
-            vertices.get(edgeEnd).add(edgeStart);
+    /**
+     * Scan sorted edge keys and add each edge that connects two different components
+     */
+    private void addEdgesInOrder(long[] keys, int from, int to, UnionFind components, ArrayList<GraphEdge> minSpanningTree){
+        for (int k = from; k < to && minSpanningTree.size() < numVertices - 1; k++){
+            addEdgeIfCrossing((int) keys[k], components, minSpanningTree);
         }
     }
 
     /**
-     * Calculate the sum of costs of each edge in minimum spanning tree
+     * Add edge e to the tree if it connects two different components
+     */
+    private void addEdgeIfCrossing(int e, UnionFind components, ArrayList<GraphEdge> minSpanningTree){
+        if (components.union(edges.getStart(e)-1, edges.getEnd(e)-1)){ //id in UnionFind and id for vertex is shifted by 1
+            minSpanningTree.add(edges.getEdge(e));
+        }
+    }
+
+    /**
+     * Solve the edge keys in range [from, to) with Filter-Kruskal. All lighter edges must have been processed already
+     */
+    private void filterKruskal(long[] keys, int from, int to, UnionFind components,
+                               ArrayList<GraphEdge> minSpanningTree, Random random){
+        while (to - from > FILTER_KRUSKAL_THRESHOLD){
+            if (minSpanningTree.size() == numVertices - 1){ //tree is complete, remaining edges are irrelevant
+                return;
+            }
+            int pivot = partition(keys, from, to, from + random.nextInt(to - from));
+            filterKruskal(keys, from, pivot, components, minSpanningTree, random); //lighter edges first
+            addEdgesInOrder(keys, pivot, pivot + 1, components, minSpanningTree);
+
+            int kept = pivot + 1; //drop heavier edges whose vertices are already connected
+            for (int k = pivot + 1; k < to; k++){
+                int e = (int) keys[k];
+                if (!components.connnected(edges.getStart(e)-1, edges.getEnd(e)-1)){
+                    keys[kept++] = keys[k];
+                }
+            }
+            from = pivot + 1;
+            to = kept;
+        }
+        Arrays.sort(keys, from, to);
+        addEdgesInOrder(keys, from, to, components, minSpanningTree);
+    }
+
+    /**
+     * Partition keys in range [from, to) around the key at pivotIndex
+     * @return final position of the pivot key. Smaller keys are before it and larger keys after it
+     */
+    private static int partition(long[] keys, int from, int to, int pivotIndex){
+        long pivotKey = keys[pivotIndex];
+        keys[pivotIndex] = keys[to - 1];
+        keys[to - 1] = pivotKey;
+        int store = from;
+        for (int k = from; k < to - 1; k++){
+            if (keys[k] < pivotKey){
+                long temp = keys[k];
+                keys[k] = keys[store];
+                keys[store++] = temp;
+            }
+        }
+        keys[to - 1] = keys[store];
+        keys[store] = pivotKey;
+        return store;
+    }
+
+    /**
+     * Calculate the sum of costs of each edge in minimum spanning tree using heap-based Prim's algorithm
      * @return the sum of costs of each edge in minimum spanning tree
      */
-    public int costOfMST(){
-        int costSum = 0;
+    public long costOfMST(){
+        long costSum = 0;
+        for (GraphEdge edge : findMSTPrim()){
+            costSum += edge.getLength();
+        }
+        return costSum;
+    }
+
+    /**
+     * Calculate the sum of costs of each edge in minimum spanning tree by scanning every edge at each iteration.
+     * Run time is O(m*n). Kept as a reference for the heap-based algorithm
+     * @return the sum of costs of each edge in minimum spanning tree
+     */
+    public long costOfMSTNaive(){
+        long costSum = 0;
         ArrayList<Integer> verticesInTree = new ArrayList<>();
         ArrayList<GraphEdge> minSpanningTree = new ArrayList<>();
 
         verticesInTree.add(1); //arbitrarily add one vertex to initial(here we add vertex zero)
-        while(verticesInTree.size() < vertices.size()){
+        while(verticesInTree.size() < numVertices){
             int minEdgeCost = Integer.MAX_VALUE;
             int endOfMinEdge = 0;
-            GraphEdge minEdge = edges.get(0);
-            for(GraphEdge edge : edges){
-                if (verticesInTree.contains(edge.getStartID()) && !verticesInTree.contains(edge.getEndID())){
-                    if (edge.getLength() < minEdgeCost){
-                        minEdgeCost = edge.getLength();
-                        endOfMinEdge = edge.getEndID();
-                        minEdge = edge;
-                    }
+            GraphEdge minEdge = null;
+            for(int e = 0; e < numEdges; e++){ //each undirected edge is checked in both directions
+                boolean startInTree = verticesInTree.contains(edges.getStart(e));
+                boolean endInTree = verticesInTree.contains(edges.getEnd(e));
+                if (startInTree != endInTree && edges.getLength(e) < minEdgeCost){
+                    minEdgeCost = edges.getLength(e);
+                    endOfMinEdge = startInTree ? edges.getEnd(e) : edges.getStart(e);
+                    minEdge = edges.getEdge(e);
                 }
             }
+            if (minEdge == null){ //remaining vertices are not reachable
+                break;
+            }
             verticesInTree.add(endOfMinEdge);
             minSpanningTree.add(minEdge);
             costSum += minEdge.getLength();
@@ -105,15 +413,22 @@ public class MinSpanningTreeFinder {
     }
 
     public void printGraph(){
-        System.out.println(edges);
-        System.out.println(vertices);
+        for (int e = 0; e < numEdges; e++){
+            System.out.println(edges.getEdge(e));
+        }
     }
 
     public static void main(String[] args) throws FileNotFoundException{
 //        MinSpanningTreeFinder tester = new MinSpanningTreeFinder("data/edges-test.txt"); //overall cost of MST: 7
-        MinSpanningTreeFinder tester = new MinSpanningTreeFinder("data/edges.txt"); //overall cost of MST: 7
+        MinSpanningTreeFinder tester = new MinSpanningTreeFinder("data/edges.txt"); //overall cost of MST: -3612829
 
         //tester.printGraph();
         System.out.println("Sum of costs of minimum spanning tree is: " + tester.costOfMST());
+        System.out.println("Sum of costs of minimum spanning tree (Kruskal) is: " + tester.costOfMST(Algorithm.KRUSKAL));
+        System.out.println("Sum of costs of minimum spanning tree (Filter-Kruskal) is: "
+                + tester.costOfMST(Algorithm.FILTER_KRUSKAL));
+        System.out.println("Sum of costs of minimum spanning tree (parallel Boruvka) is: "
+                + tester.costOfMST(Algorithm.PARALLEL_BORUVKA));
+        //System.out.println("Sum of costs of minimum spanning tree (naive) is: " + tester.costOfMSTNaive());
     }
 }
@@ -0,0 +1,229 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Maximum-weight independent set of a path graph computed in parallel. Input format is as in IndependentSetFinder.
+ *
+ *              One step of the recurrence maps (A[i-1], A[i-2]) to (A[i], A[i-1]) with A[i] = max(A[i-1], A[i-2] + w_i),
+ *              which is a product with the 2x2 matrix [[0, w_i], [0, -inf]] in the (max, +) semiring. The product is
+ *              associative, so the path is cut into chunks and solved as a three-phase scan on a ForkJoinPool:
+ *              1. every chunk multiplies its step matrices into one 2x2 matrix, in parallel;
+ *              2. the chunk matrices are applied left to right to get the DP values entering each chunk,
+ *                 which is cheap as there are only a few chunks per core;
+ *              3. every chunk fills its part of the DP array from its entering values, in parallel.
+ *
+ *              Reconstruction walks backward with the same tie rule as IndependentSetFinder. A walk can only enter a
+ *              chunk at its last or second-to-last vertex, so every chunk first finds, in parallel, where the walk
+ *              leaves it for both entry points. The real entry points are then chained right to left, and every
+ *              chunk marks its vertices in parallel. Chunks are multiples of 64 vertices, so no two chunks write
+ *              the same word of the result bit set.
+ **/
+public class ParallelIndependentSetFinder {
+    private static final long NEG_INF = Long.MIN_VALUE / 4; //-inf of the (max, +) semiring, safe to add a weight to
+    private static final int MIN_CHUNK_SIZE = 4096;
+
+    private int numVertices;
+    private long[] weights; //weights[i] is the weight of vertex i, weights[0] is unused
+    private long[] maxWIS; //i_th value is the maximum weight of a independent set in subgraph that has i_th first vertices
+    private int chunkSize; //chunk c holds vertices c*chunkSize .. (c+1)*chunkSize-1, without vertex 0
+    private int numChunks;
+
+    /**
+     * Construct the path graph using external txt file. File format can be found in IndependentSetFinder
+     * @param fileInputName file name to be imported
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public ParallelIndependentSetFinder(String fileInputName) throws FileNotFoundException {
+        Scanner fileScanner;
+        try {
+            fileScanner = new Scanner(new File(fileInputName));
+        } catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+        numVertices = Integer.parseInt(fileScanner.nextLine().trim());
+        weights = new long[numVertices+1];
+        int index = 1;
+        while (fileScanner.hasNextLine() && index <= numVertices) {
+            String line = fileScanner.nextLine().trim();
+            if (!line.isEmpty()){
+                weights[index++] = Long.parseLong(line);
+            }
+        }
+        maxWIS = new long[numVertices+1];
+    }
+
+    /**
+     * Construct the path graph from vertex weights
+     * @param vertexWeights vertexWeights[i] is the weight of vertex i+1
+     */
+    public ParallelIndependentSetFinder(long[] vertexWeights){
+        numVertices = vertexWeights.length;
+        weights = new long[numVertices+1];
+        System.arraycopy(vertexWeights, 0, weights, 1, numVertices);
+        maxWIS = new long[numVertices+1];
+    }
+
+    /**
+     * Run the dynamic programming algorithm as a parallel (max, +) scan, filling maxWIS
+     * @param pool the pool to run on
+     */
+    public void runFindWIS(ForkJoinPool pool){
+        int perCore = (numVertices + 1) / (4 * pool.getParallelism()) + 1;
+        chunkSize = (Math.max(MIN_CHUNK_SIZE, perCore) + 63) & -64;
+        numChunks = numVertices / chunkSize + 1;
+
+        long[] matrices = new long[4 * numChunks]; //row-major 2x2 (max, +) product of each chunk
+        ParallelRange.forEach(pool, 0, numChunks, 1, (from, to) -> {
+            for (int c = from; c < to; c++){
+                long a = 0, b = NEG_INF, d = NEG_INF, e = 0; //identity: [[a, b], [d, e]]
+                for (int i = chunkStart(c); i < chunkEnd(c); i++){ //multiply by [[0, w_i], [0, -inf]] from the left
+                    long newA = Math.max(a, d + weights[i]);
+                    long newB = Math.max(b, e + weights[i]);
+                    d = a;
+                    e = b;
+                    a = newA;
+                    b = newB;
+                }
+                matrices[4*c] = a;
+                matrices[4*c+1] = b;
+                matrices[4*c+2] = d;
+                matrices[4*c+3] = e;
+            }
+        });
+
+        long[] entering = new long[2 * numChunks]; //(A[start-1], A[start-2]) of each chunk, A[0] = A[-1] = 0
+        for (int c = 0; c + 1 < numChunks; c++){
+            long prev = entering[2*c], prev2 = entering[2*c+1];
+            entering[2*c+2] = Math.max(matrices[4*c] + prev, matrices[4*c+1] + prev2);
+            entering[2*c+3] = Math.max(matrices[4*c+2] + prev, matrices[4*c+3] + prev2);
+        }
+
+        maxWIS[0] = 0;
+        ParallelRange.forEach(pool, 0, numChunks, 1, (from, to) -> {
+            for (int c = from; c < to; c++){
+                long prev = entering[2*c], prev2 = entering[2*c+1];
+                for (int i = chunkStart(c); i < chunkEnd(c); i++){
+                    long curr = Math.max(prev, prev2 + weights[i]);
+                    maxWIS[i] = curr;
+                    prev2 = prev;
+                    prev = curr;
+                }
+            }
+        });
+    }
+
+    /**
+     * Reconstruct the independent set in parallel
+     * @param pool the pool to run on
+     * @return bit v is set if vertex v is in the max weighted independent set
+     */
+    public LongBitSet reconstructIS(ForkJoinPool pool){
+        int[] exitFrom = new int[2 * numChunks]; //where the walk leaves chunk c after entering at its last (0) or second-to-last (1) vertex
+        ParallelRange.forEach(pool, 0, numChunks, 1, (from, to) -> {
+            for (int c = from; c < to; c++){
+                exitFrom[2*c] = walk(c, chunkEnd(c) - 1, null);
+                exitFrom[2*c+1] = walk(c, chunkEnd(c) - 2, null);
+            }
+        });
+
+        int[] entry = new int[numChunks];
+        entry[numChunks-1] = numVertices;
+        for (int c = numChunks - 1; c > 0; c--){
+            entry[c-1] = exitFrom[2*c + (chunkEnd(c) - 1 - entry[c])];
+        }
+
+        LongBitSet is = new LongBitSet(numVertices + 1);
+        ParallelRange.forEach(pool, 0, numChunks, 1, (from, to) -> {
+            for (int c = from; c < to; c++){
+                walk(c, entry[c], is);
+            }
+        });
+        return is;
+    }
+
+    /**
+     * Walk backward through one chunk
+     * @param c the chunk
+     * @param i the vertex the walk enters at
+     * @param is the set to add chosen vertices to, null to only find the exit
+     * @return the vertex the walk continues from in the previous chunk
+     */
+    private int walk(int c, int i, LongBitSet is){
+        int start = chunkStart(c);
+        while (i >= start){
+            if (i == 1){
+                if (is != null){
+                    is.set(1);
+                }
+                return 0;
+            }
+            if (maxWIS[i-1] >= maxWIS[i-2] + weights[i]){
+                i -= 1;
+            }
+            else{
+                if (is != null){
+                    is.set(i);
+                }
+                i -= 2;
+            }
+        }
+        return i;
+    }
+
+    private int chunkStart(int c){
+        return Math.max(1, c * chunkSize);
+    }
+
+    private int chunkEnd(int c){
+        return (int) Math.min(numVertices + 1L, (long) (c + 1) * chunkSize);
+    }
+
+    public long getMaxWeight() {
+        return maxWIS[numVertices];
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ParallelIndependentSetFinder tester = new ParallelIndependentSetFinder("data/mwis.txt");
+        tester.runFindWIS(pool);
+        LongBitSet is = tester.reconstructIS(pool);
+        int[] vertices = {1, 2, 3, 4, 17, 117, 517, 997};
+        String result = "";
+        for (int vertex : vertices) {
+            result += is.get(vertex) ? "1" : "0";
+        }
+        System.out.println("Final result is: " + result);
+        //correct answer is 10100110
+
+        int numVertices = 20000000;
+        Random random = new Random(1);
+        long[] weights = new long[numVertices];
+        for (int i = 0; i < numVertices; i++){
+            weights[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        ParallelIndependentSetFinder big = new ParallelIndependentSetFinder(weights);
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        double singleThread = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2){
+            ForkJoinPool threadPool = new ForkJoinPool(threads);
+            big.runFindWIS(threadPool); //warm-up
+            big.reconstructIS(threadPool);
+            long start = System.nanoTime();
+            big.runFindWIS(threadPool);
+            long chosen = big.reconstructIS(threadPool).cardinality();
+            double millis = (System.nanoTime() - start) / 1e6;
+            threadPool.shutdown();
+            if (threads == 1){
+                singleThread = millis;
+            }
+            System.out.printf("%2d threads: max weight %d, %d vertices chosen, %8.1f ms, speedup %.2f%n", threads,
+                    big.getMaxWeight(), chosen, millis, singleThread / millis);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import java.io.FileNotFoundException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Knapsack dynamic programming on several cores. Input format is as in KnapsackOptimizer.
+ *
+ *              For one item, next[x] = max(prev[x], prev[x - weight] + value) only reads the row of the previous item,
+ *              so every knapsack size of the new row can be computed at the same time. The sizes 0..W are cut into
+ *              stripes of 16384 values (128 KB, about the size of a core's L2 cache) that run on a ForkJoinPool,
+ *              and the pool joins all stripes before the next item starts. Two rows are swapped between items,
+ *              as an in-place update would read sizes that another stripe has already overwritten.
+ **/
+public class ParallelKnapsackOptimizer {
+    private static final int STRIPE_SIZE = 1 << 14;
+
+    private int knapsackSize;
+    private int numItems;
+    private int[] value;
+    private int[] weight;
+    private long[] solutionRow; //x_th value is the optimal total value with knapsack size x
+
+    /**
+     * Construct the optimizer using external txt file. File format can be found in KnapsackOptimizer
+     * @param fileInputName file name
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public ParallelKnapsackOptimizer(String fileInputName) throws FileNotFoundException {
+        this(new KnapsackOptimizer(fileInputName));
+    }
+
+    /**
+     * Construct the optimizer on the items of a KnapsackOptimizer
+     * @param items the knapsack size and items, used directly and not copied, every item must have count 1
+     */
+    public ParallelKnapsackOptimizer(KnapsackOptimizer items){
+        this(items.requireZeroOne().knapsackSize, items.value, items.weight);
+    }
+
+    /**
+     * Construct the optimizer from item arrays
+     * @param knapsackSize the knapsack size
+     * @param value value of each item, used directly and not copied
+     * @param weight weight of each item, used directly and not copied
+     */
+    public ParallelKnapsackOptimizer(int knapsackSize, int[] value, int[] weight){
+        if (value.length != weight.length){
+            throw new IllegalArgumentException("Error: value and weight arrays must have the same length.");
+        }
+        this.knapsackSize = knapsackSize;
+        this.numItems = value.length;
+        this.value = value;
+        this.weight = weight;
+    }
+
+    /**
+     * Run the dynamic programming algorithm with every item's row computed in parallel stripes
+     * @param pool the pool to run on
+     */
+    public void runOptimization(ForkJoinPool pool){
+        long[] prev = new long[knapsackSize+1];
+        long[] next = new long[knapsackSize+1];
+        for (int i = 0; i < numItems; i++){
+            int w = weight[i];
+            long v = value[i];
+            long[] from = prev, to = next;
+            ParallelRange.forEach(pool, 0, knapsackSize + 1, STRIPE_SIZE, (start, end) -> {
+                int split = Math.max(start, Math.min(end, w)); //sizes below the weight cannot take the item
+                System.arraycopy(from, start, to, start, split - start);
+                for (int x = split; x < end; x++){
+                    to[x] = Math.max(from[x], from[x-w] + v);
+                }
+            });
+            prev = next;
+            next = from;
+        }
+        solutionRow = prev;
+    }
+
+    /**
+     * Get the final optimal total value
+     * @return final optimal total value
+     */
+    public long getOptimalValueSum(){
+        return solutionRow[knapsackSize];
+    }
+
+    /**
+     * Time the optimizer with 1, 2, 4, ... threads up to the number of cores
+     * @param name name of the instance
+     * @param sequential optimal value from the sequential engine, to check against
+     */
+    private void reportScaling(String name, long sequential){
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        double singleThread = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2){
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            runOptimization(pool); //warm-up
+            long start = System.nanoTime();
+            runOptimization(pool);
+            double millis = (System.nanoTime() - start) / 1e6;
+            pool.shutdown();
+            if (getOptimalValueSum() != sequential){
+                throw new IllegalStateException("Error: parallel and sequential knapsack disagree.");
+            }
+            if (threads == 1){
+                singleThread = millis;
+            }
+            System.out.printf("%-28s %2d threads: %10.1f ms, speedup %.2f%n", name, threads, millis, singleThread / millis);
+        }
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        KnapsackOptimizer big = new KnapsackOptimizer("data/knapsack_big.txt");
+        big.runFastOptimization();
+        System.out.println("Optimal value: " + big.getFastOptimalValueSum()); //correct answer is 4243395
+        new ParallelKnapsackOptimizer(big).reportScaling("knapsack_big.txt", big.getFastOptimalValueSum());
+
+        int knapsackSize = 20000000; //10x the knapsack size of knapsack_big.txt
+        int numItems = 200;
+        Random random = new Random(1);
+        int[] value = new int[numItems];
+        int[] weight = new int[numItems];
+        for (int i = 0; i < numItems; i++){
+            value[i] = 1 + random.nextInt(100000);
+            weight[i] = 1 + random.nextInt(knapsackSize / 20);
+        }
+        KnapsackOptimizer random10x = new KnapsackOptimizer(knapsackSize, value, weight);
+        random10x.runFastOptimization();
+        new ParallelKnapsackOptimizer(random10x).reportScaling("random, size 20000000", random10x.getFastOptimalValueSum());
+    }
+}
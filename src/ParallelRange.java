@@ -0,0 +1,57 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class runs a loop body over an index range [from, to) on a ForkJoinPool.
+ *              The range is split in halves until a piece is not larger than the grain size,
+ *              and each piece is handed to the body as one sub-range.
+ **/
+public class ParallelRange {
+
+    /**
+     * Loop body that processes the indices from (inclusive) to (exclusive)
+     */
+    public interface Body {
+        void run(int from, int to);
+    }
+
+    /**
+     * Run the body over [from, to) in parallel and wait until every piece is done
+     * @param pool the pool to run on
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param grain the largest piece that is run sequentially
+     * @param body the loop body
+     */
+    public static void forEach(ForkJoinPool pool, int from, int to, int grain, Body body){
+        if (to - from <= grain){
+            body.run(from, to);
+            return;
+        }
+        pool.invoke(new RangeTask(from, to, Math.max(1, grain), body));
+    }
+
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from, to, grain;
+        private final Body body;
+
+        RangeTask(int from, int to, int grain, Body body){
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute(){
+            if (to - from <= grain){
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+        }
+    }
+}
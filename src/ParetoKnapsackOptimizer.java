@@ -0,0 +1,188 @@
+import java.io.FileNotFoundException;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Knapsack solver on the Pareto frontier (Nemhauser-Ullmann). Input format is as in KnapsackOptimizer.
+ *
+ *              After some items, the frontier is the list of (weight, value) totals of item subsets that are not
+ *              dominated, i.e. no other subset is as light and at least as valuable. Sorted by weight, the values
+ *              strictly increase. Adding an item merges the frontier with a copy of itself shifted by the item's
+ *              (weight, value), dropping points over the knapsack size and points whose value does not beat the
+ *              lighter points before them. The optimal value is the value of the last point.
+ *
+ *              The work is the total size of the frontiers, independent of the knapsack size: the frontier after
+ *              i items has at most min(2^i, W+1, V_i+1) points, V_i being the total value of the first i items.
+ *              Frontiers are kept as sorted primitive long[] arrays, swapped between items.
+ **/
+public class ParetoKnapsackOptimizer {
+    private long knapsackSize;
+    private int numItems;
+    private int[] value;
+    private int[] weight;
+    private long[] frontierWeight; //frontier points by increasing weight (and increasing value)
+    private long[] frontierValue;
+    private int frontierSize;
+    private long work; //frontier points produced over all items
+
+    /**
+     * Construct the optimizer using external txt file. File format can be found in KnapsackOptimizer
+     * @param fileInputName file name
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public ParetoKnapsackOptimizer(String fileInputName) throws FileNotFoundException {
+        this(new KnapsackOptimizer(fileInputName));
+    }
+
+    /**
+     * Construct the optimizer on the items of a KnapsackOptimizer
+     * @param items the knapsack size and items, used directly and not copied, every item must have count 1
+     */
+    public ParetoKnapsackOptimizer(KnapsackOptimizer items){
+        this(items.requireZeroOne().knapsackSize, items.value, items.weight);
+    }
+
+    /**
+     * Construct the optimizer from item arrays
+     * @param knapsackSize the knapsack size
+     * @param value value of each item, used directly and not copied
+     * @param weight weight of each item, used directly and not copied
+     */
+    public ParetoKnapsackOptimizer(long knapsackSize, int[] value, int[] weight){
+        if (value.length != weight.length){
+            throw new IllegalArgumentException("Error: value and weight arrays must have the same length.");
+        }
+        this.knapsackSize = knapsackSize;
+        this.numItems = value.length;
+        this.value = value;
+        this.weight = weight;
+    }
+
+    /**
+     * Upper bound of the frontier points produced, sum over items of min(2^i, W+1, V_i+1)
+     * @return the bound, used to choose between this solver and the dense row
+     */
+    public long workBound(){
+        long bound = 0;
+        long totalValue = 0;
+        for (int i = 1; i <= numItems; i++){
+            totalValue += value[i-1];
+            long points = Math.min(knapsackSize + 1, totalValue + 1);
+            if (i < 62){
+                points = Math.min(points, 1L << i);
+            }
+            bound += points;
+            if (bound < 0){
+                return Long.MAX_VALUE;
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Run the frontier algorithm to the end
+     */
+    public void runOptimization(){
+        runOptimization(Long.MAX_VALUE);
+    }
+
+    /**
+     * Run the frontier algorithm, giving up once more points than a budget have been produced
+     * @param workBudget the largest number of frontier points to produce
+     * @return true if the optimal value was found, false if the budget ran out
+     */
+    public boolean runOptimization(long workBudget){
+        long[] weights = new long[16];
+        long[] values = new long[16];
+        long[] nextWeights = new long[16];
+        long[] nextValues = new long[16];
+        int size = 1; //the empty subset (0, 0)
+        work = 0;
+        for (int i = 0; i < numItems; i++){
+            long w = weight[i];
+            long v = value[i];
+            if (nextWeights.length < 2 * size){
+                nextWeights = new long[2 * size];
+                nextValues = new long[2 * size];
+            }
+            int a = 0, b = 0, merged = 0; //a walks the frontier, b walks the shifted frontier
+            long lastValue = -1;
+            while (a < size || (b < size && weights[b] + w <= knapsackSize)){
+                long pointWeight, pointValue;
+                boolean fromShifted = a == size || (b < size && weights[b] + w <= knapsackSize
+                        && (weights[b] + w < weights[a] || (weights[b] + w == weights[a] && values[b] + v > values[a])));
+                if (fromShifted){
+                    pointWeight = weights[b] + w;
+                    pointValue = values[b++] + v;
+                }
+                else{
+                    pointWeight = weights[a];
+                    pointValue = values[a++];
+                }
+                if (pointValue > lastValue){ //otherwise a lighter point is at least as valuable
+                    nextWeights[merged] = pointWeight;
+                    nextValues[merged++] = pointValue;
+                    lastValue = pointValue;
+                }
+            }
+            work += merged;
+            if (work > workBudget){
+                return false;
+            }
+            long[] temp = weights;
+            weights = nextWeights;
+            nextWeights = temp;
+            temp = values;
+            values = nextValues;
+            nextValues = temp;
+            size = merged;
+        }
+        frontierWeight = weights;
+        frontierValue = values;
+        frontierSize = size;
+        return true;
+    }
+
+    /**
+     * Get the final optimal total value
+     * @return final optimal total value
+     */
+    public long getOptimalValueSum(){
+        return frontierValue[frontierSize - 1];
+    }
+
+    public int getFrontierSize(){
+        return frontierSize;
+    }
+
+    public long getWork(){
+        return work;
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        //correct answer of knapsack1.txt is 2493893
+        ParetoKnapsackOptimizer tester = new ParetoKnapsackOptimizer("data/knapsack1.txt");
+        tester.runOptimization();
+        System.out.println("Total value of optimal solution is: " + tester.getOptimalValueSum() + ", final frontier has "
+                + tester.getFrontierSize() + " points, " + tester.getWork() + " points produced in total");
+
+        String[] files = {"data/knapsack1.txt", "data/knapsack_big.txt"};
+        for (String file : files){
+            KnapsackOptimizer optimizer = new KnapsackOptimizer(file);
+            long start = System.nanoTime();
+            optimizer.runAutoOptimization();
+            System.out.print(file + " in " + (System.nanoTime() - start) / 1e6 + " ms. ");
+            optimizer.printEngineChoice();
+        }
+
+        //knapsack1.txt with every weight and the knapsack size scaled by 100000: a dense row would need 10^9 values
+        KnapsackOptimizer scaled = new KnapsackOptimizer("data/knapsack1.txt");
+        for (int i = 0; i < scaled.numItems; i++){
+            scaled.weight[i] *= 100000;
+        }
+        scaled.knapsackSize *= 100000;
+        long start = System.nanoTime();
+        scaled.runAutoOptimization();
+        System.out.print("knapsack1.txt scaled by 100000 in " + (System.nanoTime() - start) / 1e6 + " ms. ");
+        scaled.printEngineChoice();
+    }
+}
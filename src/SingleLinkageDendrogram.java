@@ -0,0 +1,147 @@
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class records the single-linkage dendrogram of a graph: the sequence of merges
+ *              Kruskal's algorithm performs, built once with UnionFind and then kept as primitive arrays.
+ *
+ *              A k-clustering is the state after the first (n-k) merges, so its max spacing is the length of
+ *              merge number (n-k), an O(1) lookup. For membership, the leaves are listed in the in-order of the
+ *              dendrogram, where every cluster at every level is a contiguous run. Between two neighbouring leaves
+ *              sits the merge that first joined them, so the clusters of any k are found by one O(n) scan that cuts
+ *              the leaf order at every merge not yet performed.
+ **/
+public class SingleLinkageDendrogram {
+    private int numVertices;
+    private int numMerges;
+    private int[] mergeLength; //mergeLength[s] is the length of the edge used by merge step s
+    private int[] mergeLeft; //dendrogram nodes joined by merge step s. Leaves are 0..n-1, merge s is node n+s
+    private int[] mergeRight;
+    private int[] leafOrder; //vertices (0-based) in dendrogram in-order
+    private int[] joinStep; //joinStep[j] is the merge step that joins leafOrder[j] and leafOrder[j+1]
+
+    /**
+     * Build the dendrogram by running Kruskal's algorithm once over edges sorted by length
+     * @param numVertices the number of vertices, which are numbered from 1 to numVertices
+     * @param sortedEdges the edges, sorted by length
+     */
+    public SingleLinkageDendrogram(int numVertices, EdgeStore sortedEdges){
+        this.numVertices = numVertices;
+        this.mergeLength = new int[Math.max(0, numVertices - 1)];
+        this.mergeLeft = new int[mergeLength.length];
+        this.mergeRight = new int[mergeLength.length];
+
+        UnionFind clusters = new UnionFind(numVertices);
+        int[] nodeOfRoot = new int[numVertices]; //dendrogram node of the cluster led by each UnionFind root
+        for (int v = 0; v < numVertices; v++){
+            nodeOfRoot[v] = v;
+        }
+        for (int i = 0; i < sortedEdges.size() && numMerges < numVertices - 1; i++){
+            int rootA = clusters.find(sortedEdges.getStart(i)-1); //id in UnionFind and id for vertex is shifted by 1
+            int rootB = clusters.find(sortedEdges.getEnd(i)-1);
+            if (rootA == rootB){
+                continue;
+            }
+            clusters.union(rootA, rootB);
+            mergeLength[numMerges] = sortedEdges.getLength(i);
+            mergeLeft[numMerges] = nodeOfRoot[rootA];
+            mergeRight[numMerges] = nodeOfRoot[rootB];
+            nodeOfRoot[clusters.find(rootA)] = numVertices + numMerges;
+            numMerges++;
+        }
+        buildLeafOrder(clusters, nodeOfRoot);
+    }
+
+    /**
+     * List the leaves in in-order of each dendrogram tree (iteratively, with an explicit stack),
+     * recording the merge step found between every two neighbouring leaves.
+     * Neighbouring leaves from different trees are never joined, marked by step Integer.MAX_VALUE
+     */
+    private void buildLeafOrder(UnionFind clusters, int[] nodeOfRoot){
+        leafOrder = new int[numVertices];
+        joinStep = new int[Math.max(0, numVertices - 1)];
+        int[] stack = new int[numVertices + numMerges];
+        int count = 0;
+        int pendingStep = Integer.MAX_VALUE;
+        for (int v = 0; v < numVertices; v++){
+            if (clusters.find(v) != v){
+                continue;
+            }
+            int top = 0;
+            int node = nodeOfRoot[v];
+            while (top > 0 || node != -1){
+                if (node != -1){ //go down the left spine
+                    stack[top++] = node;
+                    node = (node >= numVertices) ? mergeLeft[node - numVertices] : -1;
+                    continue;
+                }
+                node = stack[--top];
+                if (node < numVertices){ //leaf
+                    if (count > 0){
+                        joinStep[count - 1] = pendingStep;
+                    }
+                    leafOrder[count++] = node;
+                    node = -1;
+                }
+                else{ //merge node between its left and right subtrees
+                    pendingStep = node - numVertices;
+                    node = mergeRight[node - numVertices];
+                }
+            }
+            pendingStep = Integer.MAX_VALUE; //next tree is not joined to this one
+        }
+    }
+
+    /**
+     * Get the max spacing of a k-clustering: the length of the next merge after reaching k clusters
+     * @param k the number of clusters
+     * @return max spacing, -1 if no edge connects two of the k clusters
+     */
+    public int maxSpacing(int k){
+        int step = numVertices - k;
+        if (k < 1 || step < 0 || step >= numMerges){
+            return -1;
+        }
+        return mergeLength[step];
+    }
+
+    /**
+     * Label every vertex by its cluster in the k-clustering, without running any union
+     * @param k the number of clusters
+     * @return labels[v-1] is the cluster of vertex v, numbered from 0
+     */
+    public int[] clusterLabels(int k){
+        int performed = Math.max(0, numVertices - k); //merge steps 0..performed-1 have been done
+        int[] labels = new int[numVertices];
+        int label = 0;
+        for (int j = 0; j < numVertices; j++){
+            if (j > 0 && joinStep[j - 1] >= performed){
+                label++;
+            }
+            labels[leafOrder[j]] = label;
+        }
+        return labels;
+    }
+
+    /**
+     * Get the number of clusters after merging every edge shorter than a spacing,
+     * i.e. the largest k whose max spacing is at least minSpacing
+     * @param minSpacing the required spacing
+     * @return the number of clusters
+     */
+    public int numClustersWithSpacing(int minSpacing){
+        int low = 0, high = numMerges; //find the number of merges with length below minSpacing
+        while (low < high){
+            int mid = (low + high) >>> 1;
+            if (mergeLength[mid] < minSpacing){
+                low = mid + 1;
+            }
+            else{
+                high = mid;
+            }
+        }
+        return numVertices - low;
+    }
+
+    public int getNumMerges() {
+        return numMerges;
+    }
+}
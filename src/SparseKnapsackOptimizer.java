@@ -0,0 +1,224 @@
+import java.io.FileNotFoundException;
+import java.util.Random;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Knapsack solver for huge knapsack sizes and few items. Input format is as in KnapsackOptimizer.
+ *
+ *              The dense row of KnapsackOptimizer has one value per knapsack size, which cannot be allocated when the
+ *              size is in the billions. This solver runs the recurrence top-down instead,
+ *              best(i, x) = max(best(i+1, x), best(i+1, x - w_i) + v_i), and only visits the states (i, x) reachable
+ *              from (0, W). The recursion is made iterative with an explicit stack of at most n+1 frames, and every
+ *              finished state is memoised in a LongLongCache of bounded size. The cost of a state is the number of
+ *              states computed below it, so when the cache is full it evicts states that are cheap to recompute.
+ *              A child's value is handed straight back to its parent frame, so an evicted state costs time, never
+ *              correctness. Evictions cost little while the cache holds most reachable states, but once it holds
+ *              much fewer the recomputation grows exponentially, so the bound is a safety limit on memory, not a
+ *              replacement for sizing the cache. States where every remaining item fits, or none does, are answered
+ *              from suffix sums without a lookup.
+ **/
+public class SparseKnapsackOptimizer {
+    private static final int CAPACITY_BITS = 43; //state key is item << 43 | size
+    private static final int DEFAULT_CACHE_ENTRIES = 1 << 22;
+
+    private long knapsackSize;
+    private int numItems;
+    private int[] value;
+    private int[] weight;
+    private long[] suffixWeight; //suffixWeight[i] is the total weight of items i..n-1
+    private long[] suffixValue; //suffixValue[i] is the total value of items i..n-1
+    private int[] suffixMinWeight; //suffixMinWeight[i] is the smallest weight among items i..n-1
+    private LongLongCache cache;
+    private long statesComputed;
+    private long optimalValue;
+
+    /**
+     * Construct the optimizer using external txt file. File format can be found in KnapsackOptimizer
+     * @param fileInputName file name
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public SparseKnapsackOptimizer(String fileInputName) throws FileNotFoundException {
+        this(new KnapsackOptimizer(fileInputName));
+    }
+
+    /**
+     * Construct the optimizer on the items of a KnapsackOptimizer
+     * @param items the knapsack size and items, used directly and not copied, every item must have count 1
+     */
+    public SparseKnapsackOptimizer(KnapsackOptimizer items){
+        this(items.requireZeroOne().knapsackSize, items.value, items.weight);
+    }
+
+    /**
+     * Construct the optimizer from item arrays
+     * @param knapsackSize the knapsack size, below 2^43
+     * @param value value of each item, used directly and not copied
+     * @param weight weight of each item, used directly and not copied
+     */
+    public SparseKnapsackOptimizer(long knapsackSize, int[] value, int[] weight){
+        if (value.length != weight.length){
+            throw new IllegalArgumentException("Error: value and weight arrays must have the same length.");
+        }
+        if (knapsackSize < 0 || knapsackSize >= (1L << CAPACITY_BITS) || value.length >= (1 << (63 - CAPACITY_BITS))){
+            throw new IllegalArgumentException("Error: knapsack size must be below 2^43 and items below 2^20.");
+        }
+        this.knapsackSize = knapsackSize;
+        this.numItems = value.length;
+        this.value = value;
+        this.weight = weight;
+        suffixWeight = new long[numItems+1];
+        suffixValue = new long[numItems+1];
+        suffixMinWeight = new int[numItems+1];
+        suffixMinWeight[numItems] = Integer.MAX_VALUE;
+        for (int i = numItems - 1; i >= 0; i--){
+            suffixWeight[i] = suffixWeight[i+1] + weight[i];
+            suffixValue[i] = suffixValue[i+1] + value[i];
+            suffixMinWeight[i] = Math.min(suffixMinWeight[i+1], weight[i]);
+        }
+    }
+
+    /**
+     * Run the top-down algorithm with the default cache of 2^22 states (64 MB)
+     */
+    public void runOptimization(){
+        runOptimization(DEFAULT_CACHE_ENTRIES);
+    }
+
+    /**
+     * Run the top-down algorithm
+     * @param maxCachedStates the largest number of states kept in the cache
+     */
+    public void runOptimization(int maxCachedStates){
+        cache = new LongLongCache(maxCachedStates);
+        statesComputed = 0;
+        int[] frameItem = new int[numItems+1];
+        long[] frameSize = new long[numItems+1];
+        int[] frameStage = new int[numItems+1]; //0: new, 1: waiting for best(i+1, x), 2: waiting for best(i+1, x-w_i)
+        long[] frameSkip = new long[numItems+1]; //best(i+1, x), the value without item i
+        long[] frameStart = new long[numItems+1]; //statesComputed when the frame started
+        int top = 0;
+        frameItem[0] = 0;
+        frameSize[0] = knapsackSize;
+        frameStage[0] = 0;
+        top++;
+        long result = 0; //value of the frame finished last
+        while (top > 0){
+            int f = top - 1;
+            int i = frameItem[f];
+            long x = frameSize[f];
+            if (frameStage[f] == 0){
+                long known = boundaryValue(i, x);
+                if (known < 0){
+                    known = cache.get(key(i, x), -1);
+                }
+                if (known >= 0){
+                    result = known;
+                    top--;
+                    continue;
+                }
+                frameStage[f] = 1;
+                frameStart[f] = statesComputed;
+                frameItem[top] = i + 1;
+                frameSize[top] = x;
+                frameStage[top] = 0;
+                top++;
+                continue;
+            }
+            long best;
+            if (frameStage[f] == 1){
+                frameSkip[f] = result;
+                if (weight[i] <= x){
+                    frameStage[f] = 2;
+                    frameItem[top] = i + 1;
+                    frameSize[top] = x - weight[i];
+                    frameStage[top] = 0;
+                    top++;
+                    continue;
+                }
+                best = result;
+            }
+            else{
+                best = Math.max(frameSkip[f], result + value[i]);
+            }
+            statesComputed++;
+            cache.put(key(i, x), best, (int) Math.min(Integer.MAX_VALUE, statesComputed - frameStart[f]));
+            result = best;
+            top--;
+        }
+        optimalValue = result;
+    }
+
+    /**
+     * Answer a state without the cache if every remaining item fits or none does
+     * @return the best value, -1 if the state has to be computed
+     */
+    private long boundaryValue(int i, long x){
+        if (x >= suffixWeight[i]){
+            return suffixValue[i];
+        }
+        if (x < suffixMinWeight[i]){
+            return 0;
+        }
+        return -1;
+    }
+
+    private static long key(int i, long x){
+        return ((long) i << CAPACITY_BITS) | x;
+    }
+
+    public long getOptimalValueSum(){
+        return optimalValue;
+    }
+
+    public long getStatesComputed(){
+        return statesComputed;
+    }
+
+    public LongLongCache getCache(){
+        return cache;
+    }
+
+    /**
+     * Helper print method for state and cache statistics
+     */
+    public void printStatistics(){
+        System.out.printf("Optimal value %d: %d states computed, %d lookups, hit rate %.1f%%, %d evictions, %d states cached%n",
+                optimalValue, statesComputed, cache.getHits() + cache.getMisses(), 100 * cache.hitRate(),
+                cache.getEvictions(), cache.size());
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        //correct answer of knapsack1.txt is 2493893
+        SparseKnapsackOptimizer tester = new SparseKnapsackOptimizer("data/knapsack1.txt");
+        tester.runOptimization();
+        tester.printStatistics();
+        tester.runOptimization(1 << 19); //same answer with a cache that holds 70% of the states
+        tester.printStatistics();
+
+        //knapsack1.txt with every weight and the knapsack size scaled by 100000: same answer and states,
+        //but a dense row would need 10^9 values
+        KnapsackOptimizer items = new KnapsackOptimizer("data/knapsack1.txt");
+        int[] scaledWeight = new int[items.numItems];
+        for (int i = 0; i < items.numItems; i++){
+            scaledWeight[i] = items.weight[i] * 100000;
+        }
+        SparseKnapsackOptimizer scaled = new SparseKnapsackOptimizer(items.knapsackSize * 100000L, items.value, scaledWeight);
+        scaled.runOptimization();
+        scaled.printStatistics();
+
+        int numItems = 30;
+        Random random = new Random(1);
+        int[] value = new int[numItems];
+        int[] weight = new int[numItems];
+        for (int i = 0; i < numItems; i++){
+            value[i] = 1 + random.nextInt(1000000);
+            weight[i] = 1 + random.nextInt(1000000000);
+        }
+        long start = System.nanoTime();
+        SparseKnapsackOptimizer random30 = new SparseKnapsackOptimizer(5000000000L, value, weight);
+        random30.runOptimization();
+        random30.printStatistics();
+        System.out.println("30 random items, knapsack size 5000000000: " + (System.nanoTime() - start) / 1e6 + " ms");
+        //random weights rarely reach the same size twice, so the states approach 2^n and the cache rarely hits
+    }
+}
@@ -0,0 +1,261 @@
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Maximum-weight independent set of a path graph that is too long to be held in memory.
+ *              The input has the same format as IndependentSetFinder (number of vertices, then one weight per line)
+ *              and is streamed from the memory-mapped file, so the number of vertices is only limited by disk.
+ *
+ *              The recurrence maxWIS[i] = max(maxWIS[i-1], maxWIS[i-2] + w_i) only needs the last two values,
+ *              so the optimal weight is found in O(1) memory with long sums.
+ *              For reconstruction, the forward pass stores a checkpoint every sqrt(n) vertices: the file offset of
+ *              the next weight and the two DP values there. The backward walk then recomputes one block at a time
+ *              from its checkpoint, so memory is O(sqrt(n)) and the file is read twice.
+ *              The chosen vertices are returned as a LongBitSet of n+1 bits, bit v set if vertex v is chosen.
+ **/
+public class StreamingIndependentSetFinder {
+    private static final long MAPPING_WINDOW = 64L << 20; //size and alignment of the mapped parts of the file
+
+    private String fileInputName;
+    private long numVertices;
+    private long maxWeight;
+    private int blockSize; //vertices between two checkpoints
+    private long[] checkpointOffset; //file offset of the first weight of block b
+    private long[] checkpointPrev; //maxWIS[b*blockSize - 1], 0 for the first block
+    private long[] checkpointCurr; //maxWIS[b*blockSize]
+
+    /**
+     * Construct the finder on an external txt file. Only the header is read here
+     * @param fileInputName file name to be imported, format as in IndependentSetFinder
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public StreamingIndependentSetFinder(String fileInputName) throws FileNotFoundException {
+        this.fileInputName = fileInputName;
+        try (FileChannel channel = FileChannel.open(Paths.get(fileInputName), StandardOpenOption.READ)){
+            numVertices = new WeightReader(channel, 0).next();
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+        if (numVertices < 0){
+            throw new IllegalArgumentException("Error: input file has no header.");
+        }
+    }
+
+    /**
+     * Compute the max weight of an independent set in one pass, keeping only the last two DP values
+     * @return the max weight
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public long computeMaxWeight() throws FileNotFoundException {
+        forwardPass(false);
+        return maxWeight;
+    }
+
+    /**
+     * Run the dynamic programming algorithm and store a checkpoint every sqrt(n) vertices for reconstruction
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public void runFindWIS() throws FileNotFoundException {
+        forwardPass(true);
+    }
+
+    private void forwardPass(boolean recordCheckpoints) throws FileNotFoundException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileInputName), StandardOpenOption.READ)){
+            WeightReader reader = new WeightReader(channel, 0);
+            reader.next(); //header
+            if (recordCheckpoints){
+                blockSize = (int) Math.max(1, Math.ceil(Math.sqrt((double) numVertices)));
+                int numBlocks = (int) ((numVertices + blockSize - 1) / blockSize);
+                checkpointOffset = new long[numBlocks];
+                checkpointPrev = new long[numBlocks];
+                checkpointCurr = new long[numBlocks];
+            }
+            long prev = 0; //maxWIS[i-1]
+            long curr = 0; //maxWIS[i]
+            for (long i = 0; i < numVertices; i++){
+                if (recordCheckpoints && i % blockSize == 0){
+                    int b = (int) (i / blockSize);
+                    checkpointOffset[b] = reader.position();
+                    checkpointPrev[b] = prev;
+                    checkpointCurr[b] = curr;
+                }
+                long weight = reader.next();
+                if (weight < 0){
+                    throw new IllegalArgumentException("Error: file has " + i + " weights, header says " + numVertices + ".");
+                }
+                long next = Math.max(curr, prev + weight);
+                prev = curr;
+                curr = next;
+            }
+            maxWeight = curr;
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+    }
+
+    /**
+     * Reconstruct the independent set, walking the blocks backward and recomputing each from its checkpoint.
+     * Ties are broken as in IndependentSetFinder, so both return the same set
+     * @return bit v is set if vertex v is in the max weighted independent set
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public LongBitSet reconstructIS() throws FileNotFoundException {
+        if (checkpointOffset == null){
+            runFindWIS();
+        }
+        LongBitSet is = new LongBitSet(numVertices + 1);
+        long[] blockWIS = new long[blockSize + 2]; //blockWIS[k+1] is maxWIS[start+k]
+        long[] blockWeights = new long[blockSize + 1]; //blockWeights[k] is the weight of vertex start+k
+        try (FileChannel channel = FileChannel.open(Paths.get(fileInputName), StandardOpenOption.READ)){
+            WeightReader reader = new WeightReader(channel, 0);
+            long i = numVertices;
+            for (int b = checkpointOffset.length - 1; b >= 0 && i >= 1; b--){
+                long start = (long) b * blockSize; //block holds vertices start+1 .. end
+                if (i <= start){
+                    continue;
+                }
+                int length = (int) (Math.min(numVertices, start + blockSize) - start);
+                reader.seek(checkpointOffset[b]);
+                blockWIS[0] = checkpointPrev[b];
+                blockWIS[1] = checkpointCurr[b];
+                for (int k = 1; k <= length; k++){
+                    blockWeights[k] = reader.next();
+                    blockWIS[k+1] = Math.max(blockWIS[k], blockWIS[k-1] + blockWeights[k]);
+                }
+                while (i > start){
+                    int k = (int) (i - start);
+                    if (i == 1){
+                        is.set(1);
+                        i = 0;
+                    }
+                    else if (blockWIS[k] >= blockWIS[k-1] + blockWeights[k]){ //maxWIS[i-1] >= maxWIS[i-2] + w_i
+                        i -= 1;
+                    }
+                    else{
+                        is.set(i);
+                        i -= 2;
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+        return is;
+    }
+
+    public long getNumVertices() {
+        return numVertices;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Reads non-negative numbers one by one from a file, mapping one aligned window of the file at a time
+     */
+    private static class WeightReader {
+        private final FileChannel channel;
+        private final long fileSize;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+
+        WeightReader(FileChannel channel, long position) throws IOException {
+            this.channel = channel;
+            this.fileSize = channel.size();
+            this.position = position;
+        }
+
+        long position(){
+            return position;
+        }
+
+        void seek(long position){
+            this.position = position;
+        }
+
+        /**
+         * Read the next number, skipping any separators before it
+         * @return the number, -1 at end of file
+         */
+        long next() throws IOException {
+            int b = read();
+            while (b != -1 && (b < '0' || b > '9')){
+                if (b == '-'){
+                    throw new IllegalArgumentException("Error: weights must be non-negative.");
+                }
+                b = read();
+            }
+            if (b == -1){
+                return -1;
+            }
+            long value = 0;
+            while (b >= '0' && b <= '9'){
+                value = value * 10 + (b - '0');
+                b = read();
+            }
+            return value;
+        }
+
+        private int read() throws IOException {
+            if (position >= fileSize){
+                return -1;
+            }
+            if (window == null || position < windowStart || position >= windowStart + MAPPING_WINDOW){
+                windowStart = position & -MAPPING_WINDOW;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(MAPPING_WINDOW, fileSize - windowStart));
+            }
+            return window.get((int) (position++ - windowStart));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        StreamingIndependentSetFinder tester = new StreamingIndependentSetFinder("data/mwis.txt");
+        tester.runFindWIS();
+        LongBitSet is = tester.reconstructIS();
+        int[] vertices = {1, 2, 3, 4, 17, 117, 517, 997};
+        String result = "";
+        for (int vertex : vertices) {
+            result += is.get(vertex) ? "1" : "0";
+        }
+        System.out.println("Final result is: " + result);
+        //correct answer is 10100110
+
+        Path file = Files.createTempFile("mwis", ".txt");
+        try {
+            int numVertices = 10000000;
+            Random random = new Random(1);
+            try (BufferedWriter writer = Files.newBufferedWriter(file)){
+                writer.write(numVertices + "\n");
+                for (int i = 0; i < numVertices; i++){
+                    writer.write(random.nextInt(Integer.MAX_VALUE) + "\n");
+                }
+            }
+            StreamingIndependentSetFinder big = new StreamingIndependentSetFinder(file.toString());
+            long start = System.nanoTime();
+            long maxWeight = big.computeMaxWeight();
+            System.out.println("10000000 vertices: max weight " + maxWeight + " in " + (System.nanoTime() - start) / 1e6 + " ms");
+            start = System.nanoTime();
+            LongBitSet chosen = big.reconstructIS();
+            System.out.println("Reconstructed " + chosen.cardinality() + " vertices in " + (System.nanoTime() - start) / 1e6
+                    + " ms with checkpoints every " + big.blockSize + " vertices");
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
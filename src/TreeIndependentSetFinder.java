@@ -0,0 +1,267 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Maximum-weight independent set of a tree or a forest. Vertices are numbered from 1 to n and the forest
+ *              is given as a parent array (parent 0 for a root) or as undirected CSR adjacency. The file format is:
+ *
+ *              [number_of_vertices]
+ *              [weight of vertex 1] [parent of vertex 1]
+ *              [weight of vertex 2] [parent of vertex 2]
+ *              ...
+ *
+ *              For every vertex v, include[v] is the best weight of its subtree with v chosen and exclude[v] without it:
+ *              include[v] = w_v + sum exclude[c], exclude[v] = sum max(include[c], exclude[c]) over the children c.
+ *              Vertices are ordered leaves first (Kahn's algorithm on the number of unfinished children), so every child
+ *              is finished before its parent without recursion. Reconstruction then runs the same order backward,
+ *              top-down: a vertex is chosen if its parent is not and include[v] > exclude[v].
+ *              Run time is O(n). Working memory is two long[] and two int[] of size n on top of the input,
+ *              24 bytes per vertex, and no object is created per vertex.
+ **/
+public class TreeIndependentSetFinder {
+    private int numVertices;
+    private long[] weights; //weights[v-1] is the weight of vertex v
+    private int[] parent; //parent[v-1] is the parent of vertex v, 0 for a root
+    private long[] include; //include[v-1] is the best weight of the subtree of v with v chosen
+    private long[] exclude; //exclude[v-1] is the best weight of the subtree of v without v
+    private int[] order; //vertices with every child before its parent
+    private long maxWeight;
+
+    /**
+     * Construct the forest using external txt file. File format can be found in class description
+     * @param fileInputName file name to be imported
+     * @throws FileNotFoundException throws error if file not found
+     */
+    public TreeIndependentSetFinder(String fileInputName) throws FileNotFoundException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileInputName), StandardOpenOption.READ)){
+            if (channel.size() > Integer.MAX_VALUE){
+                throw new IllegalArgumentException("Error: input file is larger than 2 GB.");
+            }
+            parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        catch (IOException e) {
+            throw new FileNotFoundException("Error: Input file is not found.");
+        }
+    }
+
+    /**
+     * Construct the forest from a parent array
+     * @param parent parent[v-1] is the parent of vertex v, 0 for a root. Used directly and not copied
+     * @param weights weights[v-1] is the weight of vertex v. Used directly and not copied
+     */
+    public TreeIndependentSetFinder(int[] parent, long[] weights){
+        if (parent.length != weights.length){
+            throw new IllegalArgumentException("Error: parent and weight arrays must have the same length.");
+        }
+        this.numVertices = parent.length;
+        this.parent = parent;
+        this.weights = weights;
+    }
+
+    /**
+     * Construct the forest from undirected adjacency in CSR form, rooting every tree at its smallest vertex
+     * @param adjacencyStart neighbours of vertex v are adjacency[adjacencyStart[v-1] .. adjacencyStart[v]-1], n+1 entries
+     * @param adjacency the neighbours, each edge listed from both ends
+     * @param weights weights[v-1] is the weight of vertex v. Used directly and not copied
+     * @return the finder
+     */
+    public static TreeIndependentSetFinder fromCSR(int[] adjacencyStart, int[] adjacency, long[] weights){
+        int n = weights.length;
+        if (adjacencyStart.length != n + 1){
+            throw new IllegalArgumentException("Error: adjacencyStart must have numVertices + 1 entries.");
+        }
+        int[] parent = new int[n];
+        int[] queue = new int[n]; //breadth first search from every unvisited vertex
+        boolean[] visited = new boolean[n + 1];
+        for (int root = 1; root <= n; root++){
+            if (visited[root]){
+                continue;
+            }
+            visited[root] = true;
+            int head = 0, tail = 0;
+            queue[tail++] = root;
+            while (head < tail){
+                int v = queue[head++];
+                for (int j = adjacencyStart[v-1]; j < adjacencyStart[v]; j++){
+                    int u = adjacency[j];
+                    if (u == parent[v-1]){
+                        continue;
+                    }
+                    if (visited[u]){
+                        throw new IllegalArgumentException("Error: graph has a cycle through vertex " + u + ".");
+                    }
+                    visited[u] = true;
+                    parent[u-1] = v;
+                    queue[tail++] = u;
+                }
+            }
+        }
+        return new TreeIndependentSetFinder(parent, weights);
+    }
+
+    /**
+     * Parse the header and then one weight and parent per line
+     */
+    private void parse(MappedByteBuffer buffer){
+        int limit = buffer.limit();
+        int p = 0;
+        long[] number = new long[1];
+        p = nextNumber(buffer, p, limit, number);
+        numVertices = (int) number[0];
+        weights = new long[numVertices];
+        parent = new int[numVertices];
+        for (int v = 0; v < numVertices; v++){
+            p = nextNumber(buffer, p, limit, number);
+            weights[v] = number[0];
+            if (p >= 0){
+                p = nextNumber(buffer, p, limit, number);
+            }
+            if (p < 0){
+                throw new IllegalArgumentException("Error: file has " + v + " vertices, header says " + numVertices + ".");
+            }
+            parent[v] = (int) number[0];
+        }
+    }
+
+    /**
+     * Read the next number starting at byte p
+     * @return the position after the number, -1 if there is none
+     */
+    private static int nextNumber(MappedByteBuffer buffer, int p, int limit, long[] number){
+        while (p < limit && buffer.get(p) != '-' && (buffer.get(p) < '0' || buffer.get(p) > '9')){
+            p++;
+        }
+        if (p == limit){
+            return -1;
+        }
+        boolean negative = buffer.get(p) == '-';
+        if (negative){
+            p++;
+        }
+        long value = 0;
+        while (p < limit && buffer.get(p) >= '0' && buffer.get(p) <= '9'){
+            value = value * 10 + (buffer.get(p++) - '0');
+        }
+        number[0] = negative ? -value : value;
+        return p;
+    }
+
+    /**
+     * Run the include/exclude dynamic programming from the leaves up
+     */
+    public void runFindWIS(){
+        include = new long[numVertices];
+        exclude = new long[numVertices];
+        order = new int[numVertices];
+        int[] pendingChildren = new int[numVertices];
+        for (int v = 1; v <= numVertices; v++){
+            int p = parent[v-1];
+            if (p < 0 || p > numVertices || p == v){
+                throw new IllegalArgumentException("Error: vertex " + v + " has invalid parent " + p + ".");
+            }
+            if (p != 0){
+                pendingChildren[p-1]++;
+            }
+        }
+        int tail = 0;
+        for (int v = 1; v <= numVertices; v++){
+            if (pendingChildren[v-1] == 0){
+                order[tail++] = v;
+            }
+        }
+        maxWeight = 0;
+        for (int head = 0; head < tail; head++){
+            int v = order[head];
+            include[v-1] += weights[v-1];
+            long best = Math.max(include[v-1], exclude[v-1]);
+            int p = parent[v-1];
+            if (p == 0){
+                maxWeight += best;
+                continue;
+            }
+            include[p-1] += exclude[v-1];
+            exclude[p-1] += best;
+            if (--pendingChildren[p-1] == 0){
+                order[tail++] = p;
+            }
+        }
+        if (tail != numVertices){
+            throw new IllegalArgumentException("Error: parent array has a cycle.");
+        }
+    }
+
+    /**
+     * Reconstruct the independent set top-down
+     * @return bit v is set if vertex v is in the max weighted independent set
+     */
+    public LongBitSet reconstructIS(){
+        if (order == null){
+            runFindWIS();
+        }
+        LongBitSet is = new LongBitSet(numVertices + 1);
+        for (int j = numVertices - 1; j >= 0; j--){ //parents come before their children
+            int v = order[j];
+            int p = parent[v-1];
+            if ((p == 0 || !is.get(p)) && include[v-1] > exclude[v-1]){
+                is.set(v);
+            }
+        }
+        return is;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Generate a random forest, for timing on large inputs
+     * @param numVertices the number of vertices
+     * @param numTrees the number of trees
+     * @param seed seed of the random generator
+     * @return the finder of the generated forest
+     */
+    public static TreeIndependentSetFinder randomForest(int numVertices, int numTrees, long seed){
+        Random random = new Random(seed);
+        int[] parent = new int[numVertices];
+        long[] weights = new long[numVertices];
+        for (int v = 1; v <= numVertices; v++){
+            parent[v-1] = (v <= numTrees) ? 0 : 1 + random.nextInt(v - 1);
+            weights[v-1] = random.nextInt(1000000);
+        }
+        return new TreeIndependentSetFinder(parent, weights);
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        //expected max weight 47 with vertices [2, 6, 7, 8, 9, 10]
+        TreeIndependentSetFinder tester = new TreeIndependentSetFinder("data/mwis-tree-test.txt");
+        tester.runFindWIS();
+        LongBitSet is = tester.reconstructIS();
+        System.out.print("Max weight " + tester.getMaxWeight() + " with vertices:");
+        for (long v = is.nextSetBit(1); v != -1; v = is.nextSetBit(v + 1)){
+            System.out.print(" " + v);
+        }
+        System.out.println();
+
+        Runtime runtime = Runtime.getRuntime();
+        TreeIndependentSetFinder forest = randomForest(10000000, 1000, 1);
+        System.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        forest.runFindWIS();
+        long chosen = forest.reconstructIS().cardinality();
+        double millis = (System.nanoTime() - start) / 1e6;
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.println("10000000 vertices in 1000 trees: max weight " + forest.getMaxWeight() + ", " + chosen
+                + " vertices chosen in " + millis + " ms, about " + (usedAfter - usedBefore) / (1 << 20) + " MB of working memory");
+    }
+}
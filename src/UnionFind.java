@@ -3,6 +3,8 @@ import java.util.Arrays;
 /**
  * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
  * Description: Helper class. This class represents a union-find data structure that offers two methods: find and union
+ *              Roots are linked by cluster size (smaller cluster under the root of the larger one), and find
+ *              halves the path it walks, so both operations take near-constant amortized time.
  *
  * @author : Zitao He
  * @date : 2021-02-04 20:10
@@ -33,29 +35,88 @@ public class UnionFind {
      */
     public int find(int id){
         while(id != clusterRoot[id]){
+            clusterRoot[id] = clusterRoot[clusterRoot[id]]; //path halving: point id to its grandparent
             id = clusterRoot[id];
         }
         return id;
     }
 
+    /**
+     * Find the root/leader element of many elements
+     * @param ids the elements to find their roots/leaders
+     * @return roots[i] is the root/leader element of ids[i]
+     */
+    public int[] findAll(int[] ids){
+        int[] roots = new int[ids.length];
+        for (int i = 0; i < ids.length; i++){
+            roots[i] = find(ids[i]);
+        }
+        return roots;
+    }
+
     /**
      * Merge/union two separated elements into one cluster
      * @param i one element to merge
      * @param j the other element to merge
+     * @return true if two clusters were merged, false if i and j were already in the same cluster
      */
-    public void union(int i, int j){
-        if (find(i) == find(j)){ //if i and j are already in the same cluster, do nothing
-            return;
+    public boolean union(int i, int j){
+        int rootI = find(i);
+        int rootJ = find(j);
+        if (rootI == rootJ){ //if i and j are already in the same cluster, do nothing
+            return false;
         }
-        if(clusterSize[i] < clusterSize[j]){ //add smaller cluster to the root of larger cluster
-            clusterRoot[i] = j;
-            clusterSize[j] += clusterSize[i];
+        if(clusterSize[rootI] < clusterSize[rootJ]){ //add smaller cluster to the root of larger cluster
+            clusterRoot[rootI] = rootJ;
+            clusterSize[rootJ] += clusterSize[rootI];
         }
         else{
-            clusterRoot[j] = i;
-            clusterSize[i] += clusterSize[j];
+            clusterRoot[rootJ] = rootI;
+            clusterSize[rootI] += clusterSize[rootJ];
         }
         numClusters --;
+        return true;
+    }
+
+    /**
+     * Merge/union many pairs of elements. Pair k is (first[k], second[k])
+     * @param first one element of each pair
+     * @param second the other element of each pair
+     * @return the number of pairs that merged two clusters
+     */
+    public int unionAll(int[] first, int[] second){
+        if (first.length != second.length){
+            throw new IllegalArgumentException("Error: both arrays of pairs must have the same length.");
+        }
+        int merged = 0;
+        for (int k = 0; k < first.length; k++){
+            if (union(first[k], second[k])){
+                merged++;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Label every element by its cluster. Labels are numbered from 0 to getNumClusters()-1
+     * in the order the clusters are first met when scanning elements from 0.
+     * Run time is O(n) amortized.
+     * @return labels[i] is the cluster label of element i
+     */
+    public int[] componentsSnapshot(){
+        int n = clusterRoot.length;
+        int[] labels = new int[n];
+        int[] rootLabel = new int[n];
+        Arrays.fill(rootLabel, -1);
+        int nextLabel = 0;
+        for (int i = 0; i < n; i++){
+            int root = find(i);
+            if (rootLabel[root] == -1){
+                rootLabel[root] = nextLabel++;
+            }
+            labels[i] = rootLabel[root];
+        }
+        return labels;
     }
 
     /**
@@ -0,0 +1,122 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Project: Coursera Algorithms by Standford University: Greedy Algorithms, Minimum Spanning Trees, and Dynamic Programming.
+ * Description: Helper class. This class stress tests ConcurrentUnionFind against the sequential UnionFind and
+ *              compares their running time.
+ *
+ *              The stress test runs the same random pairs through both structures, the concurrent one from
+ *              many threads at once while other threads keep calling connnected, then checks that both end with
+ *              the same clusters and the same cluster count. The timing part reports the sequential UnionFind,
+ *              ConcurrentUnionFind on one thread, and ConcurrentUnionFind on all cores.
+ **/
+public class UnionFindBenchmark {
+    private static final int GRAIN = 4096;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * Generate random pairs of elements
+     * @return pairs[0] and pairs[1] hold the two elements of each pair
+     */
+    private static int[][] randomPairs(int n, int numPairs, long seed){
+        Random random = new Random(seed);
+        int[][] pairs = new int[2][numPairs];
+        for (int k = 0; k < numPairs; k++){
+            pairs[0][k] = random.nextInt(n);
+            pairs[1][k] = random.nextInt(n);
+        }
+        return pairs;
+    }
+
+    /**
+     * Run the pairs through ConcurrentUnionFind from all threads of the pool
+     */
+    private static void concurrentUnions(ForkJoinPool pool, ConcurrentUnionFind clusters, int[][] pairs){
+        ParallelRange.forEach(pool, 0, pairs[0].length, GRAIN, (from, to) -> {
+            for (int k = from; k < to; k++){
+                clusters.union(pairs[0][k], pairs[1][k]);
+            }
+        });
+    }
+
+    /**
+     * Stress test ConcurrentUnionFind. Throws IllegalStateException if it disagrees with UnionFind
+     */
+    public static void stressTest(int n, int numPairs, int rounds){
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int round = 0; round < rounds; round++){
+            int[][] pairs = randomPairs(n, numPairs, round);
+            UnionFind expected = new UnionFind(n);
+            expected.unionAll(pairs[0], pairs[1]);
+
+            ConcurrentUnionFind actual = new ConcurrentUnionFind(n);
+            AtomicBoolean unionsDone = new AtomicBoolean(false);
+            AtomicBoolean connectivityBroken = new AtomicBoolean(false);
+            long readerSeed = -round;
+            Thread reader = new Thread(() -> { //connected elements must stay connected and be connected at the end
+                Random random = new Random(readerSeed);
+                while (!unionsDone.get()){
+                    int a = random.nextInt(n);
+                    int b = random.nextInt(n);
+                    if (actual.connnected(a, b) && (!actual.connnected(b, a) || !expected.connnected(a, b))){
+                        connectivityBroken.set(true);
+                    }
+                }
+            });
+            reader.start();
+            concurrentUnions(pool, actual, pairs);
+            unionsDone.set(true);
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (connectivityBroken.get()){
+                throw new IllegalStateException("Error: connnected gave a wrong answer in round " + round);
+            }
+            if (actual.getNumClusters() != expected.getNumClusters()){
+                throw new IllegalStateException("Error: cluster counts differ in round " + round + ": "
+                        + actual.getNumClusters() + " vs " + expected.getNumClusters());
+            }
+            if (!Arrays.equals(actual.componentsSnapshot(), expected.componentsSnapshot())){
+                throw new IllegalStateException("Error: clusters differ in round " + round);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = 1 << 20;
+        int numPairs = 4 * n;
+
+        stressTest(1 << 16, 1 << 17, 20);
+        System.out.println("Stress test passed on " + ForkJoinPool.commonPool().getParallelism() + " worker threads");
+
+        int[][] pairs = randomPairs(n, numPairs, 42);
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        double sequential = 0, concurrentSingle = 0, concurrentAll = 0;
+        for (int round = -1; round < MEASURED_ROUNDS; round++){ //round -1 is warm-up
+            long start = System.nanoTime();
+            new UnionFind(n).unionAll(pairs[0], pairs[1]);
+            long afterSequential = System.nanoTime();
+            concurrentUnions(singleThread, new ConcurrentUnionFind(n), pairs);
+            long afterSingle = System.nanoTime();
+            concurrentUnions(ForkJoinPool.commonPool(), new ConcurrentUnionFind(n), pairs);
+            long afterAll = System.nanoTime();
+            if (round >= 0){
+                sequential += (afterSequential - start) / 1e6 / MEASURED_ROUNDS;
+                concurrentSingle += (afterSingle - afterSequential) / 1e6 / MEASURED_ROUNDS;
+                concurrentAll += (afterAll - afterSingle) / 1e6 / MEASURED_ROUNDS;
+            }
+        }
+        singleThread.shutdown();
+        System.out.printf("%d unions over %d elements%n", numPairs, n);
+        System.out.printf("UnionFind:                       %8.2f ms%n", sequential);
+        System.out.printf("ConcurrentUnionFind, 1 thread:   %8.2f ms%n", concurrentSingle);
+        System.out.printf("ConcurrentUnionFind, %2d threads: %8.2f ms%n",
+                ForkJoinPool.commonPool().getParallelism(), concurrentAll);
+    }
+}